@@ -0,0 +1,101 @@
+package com;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Candidate lookup over a big catalog, {@link ContainerIndex} against the linear scan over the volume sorted
+ * containers that it replaced.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContainerIndexBenchmark {
+    private static final int QUERIES = 64;
+
+    // Small orders take most of the catalog, big ones only a few containers
+    public enum Order { SMALL, BIG }
+
+    @Param({"1000", "10000"})
+    public int containers;
+
+    @Param
+    public Order order;
+
+    private ContainerIndex index;
+    private List<Box> sorted;
+    private ItemStats[] queries;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(containers);
+        List<Box> catalog = new ArrayList<>();
+
+        for (int i = 0; i < containers; i++) {
+            catalog.add(new Box(10 + random.nextInt(1_200), 10 + random.nextInt(1_200), 10 + random.nextInt(1_200)));
+        }
+
+        index = new ContainerIndex(catalog);
+        sorted = index.containers();
+        queries = new ItemStats[QUERIES];
+
+        for (int q = 0; q < QUERIES; q++) {
+            List<Box> items = new ArrayList<>();
+
+            int size = order == Order.SMALL ? 300 : 900;
+
+            for (int i = 0; i < 1 + random.nextInt(5); i++) {
+                items.add(new Box(10 + random.nextInt(size), 10 + random.nextInt(size), 10 + random.nextInt(size)));
+            }
+
+            queries[q] = ItemStats.of(items);
+        }
+    }
+
+    @Benchmark
+    public int index() {
+        int found = 0;
+
+        for (var stats : queries) {
+            found += index.candidates(stats).size();
+        }
+
+        return found;
+    }
+
+    @Benchmark
+    public int linearScan() {
+        int found = 0;
+
+        for (var stats : queries) {
+            List<Box> candidates = new ArrayList<>();
+
+            for (var container : sorted) {
+                if (container.volume() >= stats.totalVolume && container.fitsOneInOne(stats)) {
+                    candidates.add(container);
+                }
+            }
+
+            found += candidates.size();
+        }
+
+        return found;
+    }
+}
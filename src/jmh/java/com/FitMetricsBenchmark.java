@@ -0,0 +1,64 @@
+package com;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link FitMetrics} on the cheapest tiers, where it weighs the most, from several threads at once
+ * so the counters are contended.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class FitMetricsBenchmark {
+
+    @Param({"MIN_STACK_ACCEPT", "VOLUME_REJECT", "CUBE_SLICE_ACCEPT"})
+    public FitTierBenchmark.Tier tier;
+
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    private Box container;
+    private List<Box> items;
+
+    @Setup
+    public void setUp() {
+        container = tier.container;
+        items = tier.items;
+
+        if (metrics) {
+            FitMetrics.enable();
+        } else {
+            FitMetrics.disable();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        FitMetrics.disable();
+        FitMetrics.reset();
+    }
+
+    @Benchmark
+    public boolean canTheseFitIn() {
+        return container.canTheseFitIn(items);
+    }
+}
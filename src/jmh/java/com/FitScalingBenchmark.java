@@ -0,0 +1,70 @@
+package com;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The quick tiers of {@code Box._canTheseFitIn} with a growing number of items, so that anything that
+ * stops being linear (or starts allocating per item) shows up.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FitScalingBenchmark {
+
+    public enum Tier { MIN_STACK_ACCEPT, VOLUME_REJECT, CUBE_SLICE_ACCEPT, MULTISTACK_ACCEPT }
+
+    @Param
+    public Tier tier;
+
+    @Param({"5", "10", "20", "40", "80"})
+    public int count;
+
+    private Box container;
+    private List<Box> items;
+
+    @Setup
+    public void setUp() {
+        switch (tier) {
+            case MIN_STACK_ACCEPT -> {
+                container = new Box(100, 100, count);
+                items = Collections.nCopies(count, new Box(10, 10, 1));
+            }
+            case VOLUME_REJECT -> {
+                container = new Box(2, 2, 2 * count - 1);
+                items = Collections.nCopies(count, new Box(2, 2, 2));
+            }
+            case CUBE_SLICE_ACCEPT -> {
+                int side = (int) Math.ceil(Math.cbrt(count));
+                container = new Box(2 * side, 2 * side, 2 * side);
+                items = Collections.nCopies(count, new Box(2, 2, 2));
+            }
+            case MULTISTACK_ACCEPT -> {
+                // Stacks of two along the min dimension, laid out along the max one
+                container = new Box(5 * ((count + 1) / 2), 5, 4);
+                items = Collections.nCopies(count, new Box(5, 5, 2));
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean canTheseFitIn() {
+        return container.canTheseFitIn(items);
+    }
+}
@@ -0,0 +1,137 @@
+package com;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One fixture per decision tier of {@code Box._canTheseFitIn}, each built so that it is decided by
+ * exactly that tier. Run with {@code -prof gc} to get the allocation rate next to the throughput.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FitTierBenchmark {
+
+    public enum Tier {
+        // (1, 9, 9) does not fit "1 in 1" into (5, 5, 10)
+        ONE_IN_ONE_REJECT(new Box(10, 5, 5), List.of(new Box(9, 9, 1))),
+
+        // Mins sum to 4 <= 5
+        MIN_STACK_ACCEPT(new Box(10, 5, 5), Collections.nCopies(4, new Box(5, 5, 1))),
+
+        // 28 > 27
+        VOLUME_REJECT(new Box(3, 3, 3), List.of(new Box(3, 3, 3), new Box(1, 1, 1))),
+
+        // 5 * 5 * 5 cells of 10 for 20 items
+        CUBE_SLICE_ACCEPT(new Box(50, 50, 50), Collections.nCopies(20, new Box(10, 10, 10))),
+
+        // Two stacks of two along the min dimension
+        MULTISTACK_ACCEPT(new Box(10, 10, 4), Collections.nCopies(4, new Box(5, 5, 2))),
+
+        // Three 3-cubes in a 5-cube, any two of them overlap in the middle
+        LOWER_BOUND_REJECT(new Box(5, 5, 5), Collections.nCopies(3, new Box(3, 3, 3))),
+
+        // 300 of the same carton, 500 fit in a grid
+        BLOCK_ACCEPT(new Box(30, 40, 25), Collections.nCopies(300, new Box(3, 4, 5))),
+
+        // Rotated into place one by one from the lowest corner
+        EXTREME_POINT_ACCEPT(new Box(3, 3, 3), List.of(
+            new Box(3, 1, 1), new Box(1, 1, 1), new Box(1, 1, 1), new Box(1, 1, 1),
+            new Box(1, 1, 1), new Box(1, 1, 1), new Box(1, 1, 3), new Box(1, 1, 1),
+            new Box(1, 2, 1), new Box(1, 1, 2), new Box(2, 1, 1), new Box(1, 3, 1),
+            new Box(1, 2, 1), new Box(1, 2, 1))),
+
+        // Fits, but not by any of the extreme point orders, and few enough items to be searched for directly
+        SMALL_SEARCH_FIT(new Box(3, 4, 3), List.of(
+            new Box(2, 2, 1), new Box(2, 1, 2), new Box(3, 3, 1),
+            new Box(3, 1, 2), new Box(3, 1, 2), new Box(3, 1, 2))),
+
+        // Passes every bound, the cube is always in the way of the 3x3 plate
+        SMALL_SEARCH_NO_FIT(new Box(3, 4, 2), List.of(
+            new Box(1, 1, 1), new Box(2, 2, 2), new Box(3, 3, 1), new Box(3, 1, 1))),
+
+        // SOLVER_FIT scaled by 2, the solver runs on the rescaled instance
+        GCD_RESCALE(new Box(8, 10, 8), List.of(
+            new Box(4, 6, 2), new Box(2, 2, 4), new Box(2, 2, 2), new Box(6, 4, 4),
+            new Box(6, 4, 2), new Box(4, 6, 4), new Box(2, 4, 4), new Box(6, 6, 4),
+            new Box(2, 6, 4), new Box(4, 4, 2), new Box(6, 6, 2))),
+
+        // Fills the container, but not by any of the extreme point orders, too many items for the small search
+        SOLVER_FIT(new Box(4, 5, 4), List.of(
+            new Box(2, 3, 1), new Box(1, 1, 2), new Box(1, 1, 1), new Box(3, 2, 2),
+            new Box(3, 2, 1), new Box(2, 3, 2), new Box(1, 2, 2), new Box(3, 3, 2),
+            new Box(1, 3, 2), new Box(2, 2, 1), new Box(3, 3, 1))),
+
+        // SOLVER_FIT in millimetres with a millimetre to spare, so that no rescaling helps
+        SOLVER_FIT_MM(new Box(401, 500, 400), List.of(
+            new Box(200, 300, 100), new Box(100, 100, 200), new Box(100, 100, 100), new Box(300, 200, 200),
+            new Box(300, 200, 100), new Box(200, 300, 200), new Box(100, 200, 200), new Box(300, 300, 200),
+            new Box(100, 300, 200), new Box(200, 200, 100), new Box(300, 300, 100))),
+
+        // Passes every bound and has too many items for the small search, refuted after a short search
+        SOLVER_NO_FIT(new Box(4, 5, 4), List.of(
+            new Box(3, 2, 2), new Box(2, 2, 1), new Box(1, 1, 1), new Box(3, 1, 3),
+            new Box(1, 3, 3), new Box(1, 1, 1), new Box(1, 2, 1), new Box(1, 2, 1),
+            new Box(1, 2, 1), new Box(3, 3, 3), new Box(3, 3, 1)));
+
+        final Box container;
+        final List<Box> items;
+
+        Tier(Box container, List<Box> items) {
+            this.container = container;
+            this.items = items;
+        }
+    }
+
+    @Param
+    public Tier tier;
+
+    private Box container;
+    private List<Box> items;
+
+    private BatchFitter fitter;
+    private int[] dimensions;
+
+    @Setup
+    public void setUp() {
+        container = tier.container;
+        items = tier.items;
+
+        fitter = new BatchFitter();
+        dimensions = new int[3 * items.size()];
+
+        for (int i = 0; i < items.size(); i++) {
+            dimensions[3 * i] = items.get(i).width();
+            dimensions[3 * i + 1] = items.get(i).height();
+            dimensions[3 * i + 2] = items.get(i).length();
+        }
+    }
+
+    @Benchmark
+    public boolean canTheseFitIn() {
+        return container.canTheseFitIn(items);
+    }
+
+    // Same instance from primitive arrays, the quick tiers should show no allocation under -prof gc
+    @Benchmark
+    public boolean batch() {
+        return fitter.fit(container.width(), container.height(), container.length(), dimensions, 0, items.size())
+                     .fits();
+    }
+}
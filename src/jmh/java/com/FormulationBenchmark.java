@@ -0,0 +1,69 @@
+package com;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Model construction and solving of the Choco tier for each {@link FitOptions.Formulation}, straight on
+ * {@link PackingModel} so that none of the quick tiers get in the way.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FormulationBenchmark {
+    private static final int LIMIT_MS = 10_000;
+
+    @Param
+    public FitOptions.Formulation formulation;
+
+    @Param({"20", "35", "50"})
+    public int count;
+
+    private Box container;
+    private List<Box> items;
+
+    @Setup
+    public void setUp() {
+        // About 40% full, with more items than 7-cubes in the container
+        int side = 7 * (int) Math.ceil(Math.cbrt(count)) - 1;
+        container = new Box(side, side, side);
+
+        var random = new Random(count);
+        items = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            items.add(new Box(4 + random.nextInt(4), 4 + random.nextInt(4), 4 + random.nextInt(4)));
+        }
+
+        items.sort(Box.BOX_COMPARATOR.reversed());
+    }
+
+    @Benchmark
+    public PackingModel build() {
+        return new PackingModel(container, items, formulation);
+    }
+
+    @Benchmark
+    public boolean buildAndSolve() {
+        var packing = new PackingModel(container, items, formulation);
+        packing.model.getSolver().limitTime(LIMIT_MS);
+        return packing.model.getSolver().solve();
+    }
+}
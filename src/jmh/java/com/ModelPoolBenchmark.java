@@ -0,0 +1,80 @@
+package com;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Getting a model ready for a solver call, and taking it down after, built from scratch against loaded into a
+ * template of {@link ModelPool}. The search itself is left out.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ModelPoolBenchmark {
+    private static final int ORDERS = 16;
+
+    @Param({"10", "20"})
+    public int items;
+
+    private final Box container = new Box(20, 20, 20);
+    private final List<List<Box>> orders = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        var random = new Random(items);
+
+        for (int o = 0; o < ORDERS; o++) {
+            List<Box> order = new ArrayList<>();
+
+            for (int i = 0; i < items; i++) {
+                order.add(new Box(1 + random.nextInt(10), 1 + random.nextInt(10), 1 + random.nextInt(10)));
+            }
+
+            order.sort(Box.BOX_COMPARATOR.reversed());
+            orders.add(order);
+        }
+    }
+
+    @Benchmark
+    public int build() {
+        int variables = 0;
+
+        for (var order : orders) {
+            variables += new PackingModel(container, order, FitOptions.Formulation.PAIRWISE).model.getNbVars();
+        }
+
+        return variables;
+    }
+
+    @Benchmark
+    public int pooled() {
+        var pool = ModelPool.get();
+        int variables = 0;
+
+        for (var order : orders) {
+            var model = pool.acquire(container, order, FitOptions.Formulation.PAIRWISE,
+                FitOptions.defaults().symmetryBreaking());
+            variables += model.model.getNbVars();
+            pool.release(model);
+        }
+
+        return variables;
+    }
+}
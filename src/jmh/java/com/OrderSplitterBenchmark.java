@@ -0,0 +1,65 @@
+package com;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splitting random orders over a small catalog, with a cache that starts empty for every order and with one
+ * shared across all of them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderSplitterBenchmark {
+    private static final BoxCatalog CATALOG = new BoxCatalog(List.of(
+        new Box(60, 40, 40), new Box(40, 30, 30), new Box(30, 20, 20), new Box(80, 20, 20)
+    ));
+
+    private static final FitOptions OPTIONS = FitOptions.defaults().withTimeLimit(10);
+
+    @Param({"50", "100", "200"})
+    public int count;
+
+    private List<Box> items;
+    private OrderSplitter shared;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(count);
+        items = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            items.add(new Box(5 + random.nextInt(20), 5 + random.nextInt(15), 5 + random.nextInt(15)));
+        }
+
+        shared = new OrderSplitter(CATALOG, new FitCache(100_000, 10_000_000), OPTIONS);
+    }
+
+    @Benchmark
+    public Optional<List<Bin>> coldCache() {
+        return new OrderSplitter(CATALOG, new FitCache(100_000, 10_000_000), OPTIONS).split(items);
+    }
+
+    @Benchmark
+    public Optional<List<Bin>> sharedCache() {
+        return shared.split(items);
+    }
+}
@@ -0,0 +1,75 @@
+package com;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.FitOptions.Symmetry.*;
+
+/**
+ * Proving no-fits in a cube container, where every symmetry rule applies, with each {@link FitOptions.Symmetry}
+ * rule on top of the item rules and with all of them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SymmetryBenchmark {
+    public enum Rules {
+        NONE(EnumSet.noneOf(FitOptions.Symmetry.class)),
+        ITEMS(EnumSet.of(IDENTICAL_ITEMS, ROTATIONS)),
+        MIRROR(EnumSet.of(IDENTICAL_ITEMS, ROTATIONS, FitOptions.Symmetry.MIRROR)),
+        AXES(EnumSet.of(IDENTICAL_ITEMS, ROTATIONS, FitOptions.Symmetry.AXES)),
+        ALL(EnumSet.allOf(FitOptions.Symmetry.class));
+
+        final Set<FitOptions.Symmetry> symmetryBreaking;
+
+        Rules(Set<FitOptions.Symmetry> symmetryBreaking) {
+            this.symmetryBreaking = symmetryBreaking;
+        }
+    }
+
+    @Param
+    public Rules rules;
+
+    private final Box container = new Box(10, 10, 10);
+    private List<List<Box>> orders;
+
+    @Setup
+    public void setUp() {
+        orders = List.of(
+            List.of(new Box(4, 7, 7), new Box(6, 4, 7), new Box(7, 6, 4), new Box(5, 4, 7), new Box(2, 7, 2)),
+            List.of(new Box(5, 6, 7), new Box(7, 6, 5), new Box(4, 7, 7), new Box(4, 7, 4), new Box(7, 3, 5)),
+            List.of(new Box(7, 6, 5), new Box(4, 7, 7), new Box(5, 4, 6), new Box(4, 4, 7), new Box(3, 4, 4)));
+    }
+
+    @Benchmark
+    public int solve() {
+        int fits = 0;
+
+        for (var order : orders) {
+            var model = new PackingModel(container, order, FitOptions.Formulation.PAIRWISE, rules.symmetryBreaking);
+
+            if (model.model.getSolver().solve()) {
+                fits++;
+            }
+        }
+
+        return fits;
+    }
+}
@@ -0,0 +1,308 @@
+package com;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.FitResult.Stage;
+
+/**
+ * Fit checks over items given as primitive arrays rather than {@link Box} lists, for callers running a huge
+ * number of them. The dimensions go into reused struct-of-arrays buffers and the quick checks of
+ * {@link Box#fit(List, FitOptions)} run on those without allocating. Only an instance that gets past all of
+ * them is turned into {@link Box} objects and handed to the full pipeline, so the answers are the same.
+ * <p>
+ * The items can come as
+ * <ul>
+ *     <li>{@code int[]}: three dimensions per item, in any order,</li>
+ *     <li>{@code long[]}: one {@link #pack(int, int, int)} value per item,</li>
+ *     <li>{@link ByteBuffer}: three {@code int} dimensions per item between its position and limit, in its
+ *     byte order, which also covers direct and memory mapped buffers.</li>
+ * </ul>
+ * Not thread safe, use one per thread.
+ */
+public final class BatchFitter {
+    private static final int PACKED_DIMENSION_BITS = 21;
+    private static final long PACKED_DIMENSION_MASK = (1L << PACKED_DIMENSION_BITS) - 1;
+
+    // Multistack sort keys leave the low bits to the item index
+    private static final int INDEX_BITS = 30;
+    private static final long MAX_DIMENSION_SUM = 3L * Integer.MAX_VALUE;
+
+    private final FitOptions options;
+
+    // Item i is (mins[i], meds[i], maxs[i]), its dimensions sorted
+    private int[] mins;
+    private int[] meds;
+    private int[] maxs;
+    private long[] keys;
+    private int count;
+
+    public BatchFitter() {
+        this(FitOptions.defaults());
+    }
+
+    public BatchFitter(FitOptions options) {
+        this.options = options;
+
+        mins = new int[16];
+        meds = new int[16];
+        maxs = new int[16];
+        keys = new long[16];
+    }
+
+    /**
+     * Encodes the dimensions of an item for {@link #fit(int, int, int, long[], int, int)}, each of them has to be
+     * below {@code 2^21}.
+     */
+    public static long pack(int width, int height, int length) {
+        validate(width);
+        validate(height);
+        validate(length);
+
+        int min = Math.min(width, Math.min(height, length));
+        int max = Math.max(width, Math.max(height, length));
+        int med = width + height + length - min - max;
+
+        if (max > PACKED_DIMENSION_MASK) {
+            throw new IllegalArgumentException("Packed dimensions must be below " + (1 << PACKED_DIMENSION_BITS));
+        }
+
+        return ((long) max << (2 * PACKED_DIMENSION_BITS)) | ((long) med << PACKED_DIMENSION_BITS) | min;
+    }
+
+    /**
+     * The {@code count} items whose dimensions start at {@code dimensions[3 * from]}.
+     */
+    public FitResult fit(int width, int height, int length, int[] dimensions, int from, int count) {
+        load(dimensions, from, count);
+        return fit(width, height, length);
+    }
+
+    /**
+     * Like {@link #fit(int, int, int, int[], int, int)}, but stops after the quick checks and returns null when
+     * they leave the instance undecided.
+     */
+    FitResult quickFit(int width, int height, int length, int[] dimensions, int from, int count) {
+        load(dimensions, from, count);
+
+        validate(width);
+        validate(height);
+        validate(length);
+
+        if (!FitMetrics.isEnabled()) {
+            return quickChecks(width, height, length);
+        }
+
+        long start = System.nanoTime();
+        var result = quickChecks(width, height, length);
+
+        if (result != null) {
+            FitMetrics.record(result, System.nanoTime() - start);
+        }
+
+        return result;
+    }
+
+    /**
+     * The {@code count} items starting at {@code packed[from]}.
+     */
+    public FitResult fit(int width, int height, int length, long[] packed, int from, int count) {
+        reset(count);
+
+        for (int i = 0; i < count; i++) {
+            long value = packed[from + i];
+
+            set(i,
+                (int) (value & PACKED_DIMENSION_MASK),
+                (int) ((value >>> PACKED_DIMENSION_BITS) & PACKED_DIMENSION_MASK),
+                (int) (value >>> (2 * PACKED_DIMENSION_BITS)));
+        }
+
+        return fit(width, height, length);
+    }
+
+    /**
+     * The items between the position and the limit of the buffer, which are left as they are.
+     */
+    public FitResult fit(int width, int height, int length, ByteBuffer dimensions) {
+        int start = dimensions.position();
+        int bytes = dimensions.remaining();
+
+        if (bytes % (3 * Integer.BYTES) != 0) {
+            throw new IllegalArgumentException("The buffer must hold three ints per item");
+        }
+
+        reset(bytes / (3 * Integer.BYTES));
+
+        for (int i = 0; i < count; i++) {
+            int k = start + 3 * Integer.BYTES * i;
+
+            set(i,
+                dimensions.getInt(k),
+                dimensions.getInt(k + Integer.BYTES),
+                dimensions.getInt(k + 2 * Integer.BYTES));
+        }
+
+        return fit(width, height, length);
+    }
+
+    private void load(int[] dimensions, int from, int count) {
+        reset(count);
+
+        for (int i = 0; i < count; i++) {
+            int k = 3 * (from + i);
+            set(i, dimensions[k], dimensions[k + 1], dimensions[k + 2]);
+        }
+    }
+
+    private void reset(int count) {
+        if (count < 0 || count >= 1 << INDEX_BITS) {
+            throw new IllegalArgumentException("count must be between 0 and " + ((1 << INDEX_BITS) - 1));
+        }
+
+        if (count > mins.length) {
+            int capacity = Math.max(count, 2 * mins.length);
+
+            mins = new int[capacity];
+            meds = new int[capacity];
+            maxs = new int[capacity];
+            keys = new long[capacity];
+        }
+
+        this.count = count;
+    }
+
+    private void set(int i, int a, int b, int c) {
+        validate(a);
+        validate(b);
+        validate(c);
+
+        int min = Math.min(a, Math.min(b, c));
+        int max = Math.max(a, Math.max(b, c));
+
+        mins[i] = min;
+        meds[i] = a + b + c - min - max;
+        maxs[i] = max;
+    }
+
+    private FitResult fit(int width, int height, int length) {
+        validate(width);
+        validate(height);
+        validate(length);
+
+        if (!FitMetrics.isEnabled()) {
+            var result = quickChecks(width, height, length);
+            return result != null ? result : escalate(width, height, length);
+        }
+
+        long start = System.nanoTime();
+        var result = quickChecks(width, height, length);
+
+        // Escalated ones are recorded by the pipeline
+        if (result == null) {
+            return escalate(width, height, length);
+        }
+
+        FitMetrics.record(result, System.nanoTime() - start);
+        return result;
+    }
+
+    // The checks of Box._canTheseFitIn up to multistacking, null when none of them decides
+    private FitResult quickChecks(int width, int height, int length) {
+        int min = Math.min(width, Math.min(height, length));
+        int max = Math.max(width, Math.max(height, length));
+        int med = width + height + length - min - max;
+        long volume = (long) width * height * length;
+
+        int maxMin = 0;
+        int maxMed = 0;
+        int maxMax = 0;
+        long minSum = 0;
+        long totalVolume = 0;
+
+        for (int i = 0; i < count; i++) {
+            maxMin = Math.max(maxMin, mins[i]);
+            maxMed = Math.max(maxMed, meds[i]);
+            maxMax = Math.max(maxMax, maxs[i]);
+
+            minSum += mins[i];
+            totalVolume += (long) mins[i] * meds[i] * maxs[i];
+        }
+
+        if (max < maxMax || med < maxMed || min < maxMin) {
+            return FitResult.doesNotFit(Stage.DOMINANCE);
+        }
+
+        if (minSum <= min) {
+            return FitResult.fits(Stage.MIN_STACK);
+        }
+
+        if (volume < totalVolume) {
+            return FitResult.doesNotFit(Stage.VOLUME);
+        }
+
+        if ((width / maxMax) * (height / maxMax) * (length / maxMax) >= count) {
+            return FitResult.fits(Stage.CUBE_SLICE);
+        }
+
+        if (multistacks(min, max)) {
+            return FitResult.fits(Stage.MULTISTACK);
+        }
+
+        return null;
+    }
+
+    // Largest dimension sum first, ties in item order like the stable sort of the pipeline
+    private boolean multistacks(int min, int max) {
+        for (int i = 0; i < count; i++) {
+            long sum = (long) mins[i] + meds[i] + maxs[i];
+            keys[i] = ((MAX_DIMENSION_SUM - sum) << INDEX_BITS) | i;
+        }
+
+        Arrays.sort(keys, 0, count);
+
+        int stackH = 0;
+        int stackMax = 0;
+        int curMax = max;
+
+        for (int k = 0; k < count; k++) {
+            int i = (int) (keys[k] & ((1L << INDEX_BITS) - 1));
+
+            if (stackH + mins[i] > min) {
+                curMax -= stackMax;
+                stackH = 0;
+                stackMax = 0;
+            }
+
+            if (curMax < maxs[i]) {
+                return false;
+            }
+
+            if (stackH + mins[i] <= min) {
+                stackH += mins[i];
+                stackMax = Math.max(stackMax, maxs[i]);
+            }
+        }
+
+        return true;
+    }
+
+    // Past the quick checks, the rest of the pipeline works on boxes
+    private FitResult escalate(int width, int height, int length) {
+        List<Box> boxes = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            boxes.add(new Box(mins[i], meds[i], maxs[i]));
+        }
+
+        return new Box(width, height, length).fit(boxes, options);
+    }
+
+    private static void validate(int dimension) {
+        if (dimension <= 0) {
+            throw new IllegalArgumentException("Box dimensions cannot be negative");
+        }
+    }
+}
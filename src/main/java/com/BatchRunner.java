@@ -0,0 +1,256 @@
+package com;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams an order file through the fit pipeline, one (container, items) record per line, and writes one
+ * answer line per record in input order.
+ * <p>
+ * The reading thread only splits lines. Parsing and every check short of the solver run on a pool of quick
+ * workers, the first ones through a per thread {@link BatchFitter}. Only the records left to the solver move on
+ * to a separate pool of solver workers, which run nothing but the solver, so a few slow instances never hold up
+ * the cheap ones. At most {@code window} records are in
+ * flight: once the oldest one is still being worked on that many records later, reading waits for it, so
+ * memory stays flat whatever the size of the file.
+ * <p>
+ * A record that cannot be parsed or checked gets an {@code ERROR} line with the reason, the rest go on.
+ */
+public final class BatchRunner {
+    private final FitOptions options;
+    private final int quickThreads;
+    private final int solverThreads;
+    private final int window;
+
+    public BatchRunner(FitOptions options, int quickThreads, int solverThreads, int window) {
+        if (quickThreads <= 0 || solverThreads <= 0 || window <= 0) {
+            throw new IllegalArgumentException("quickThreads, solverThreads and window must be positive numbers");
+        }
+
+        this.options = options;
+        this.quickThreads = quickThreads;
+        this.solverThreads = solverThreads;
+        this.window = window;
+    }
+
+    /**
+     * Returns the number of records. Blank lines, lines starting with {@code #} and a CSV header starting with
+     * {@code id,} are skipped.
+     */
+    public long run(BufferedReader in, Writer out, Format format) throws IOException, InterruptedException {
+        ExecutorService quick = Executors.newFixedThreadPool(quickThreads, threads("fit-quick-"));
+        ExecutorService solver = Executors.newFixedThreadPool(solverThreads, threads("fit-solver-"));
+        ThreadLocal<BatchFitter> fitters = ThreadLocal.withInitial(BatchFitter::new);
+
+        BlockingQueue<CompletableFuture<String>> pending = new ArrayBlockingQueue<>(window);
+        var output = new OutputWriter(pending, out);
+        var writer = new Thread(output, "fit-writer");
+        writer.start();
+
+        long records = 0;
+
+        try {
+            String line;
+
+            while (output.failure == null && (line = in.readLine()) != null) {
+                if (isSkipped(line, format)) {
+                    continue;
+                }
+
+                long number = ++records;
+                String text = line;
+                var answer = new CompletableFuture<String>();
+
+                // Blocks while the window is full
+                pending.put(answer);
+                quick.execute(() -> check(text, number, format, fitters.get(), solver, answer));
+            }
+        } finally {
+            pending.put(OutputWriter.END);
+            writer.join();
+
+            quick.shutdownNow();
+            solver.shutdownNow();
+        }
+
+        if (output.failure != null) {
+            throw output.failure;
+        }
+
+        out.flush();
+        return records;
+    }
+
+    private void check(String line, long number, Format format, BatchFitter fitter, ExecutorService solver,
+                       CompletableFuture<String> answer) {
+        OrderRecord record = null;
+
+        try {
+            record = format.parse(line);
+            var result = fitter.quickFit(record.width, record.height, record.length,
+                record.dimensions, 0, record.count());
+
+            if (result == null) {
+                // The bounds and heuristics on the items as given, so the answers are those of Box.fit
+                var container = new Box(record.width, record.height, record.length);
+                var items = record.items();
+                result = container.fit(items, options.withoutSolver());
+
+                if (result.stage() == FitResult.Stage.SOLVER_SKIPPED) {
+                    var undecided = record;
+                    solver.execute(() -> solve(undecided, container, items, number, format, answer));
+                    return;
+                }
+            }
+
+            answer.complete(format.answer(record.id, result));
+        } catch (RuntimeException e) {
+            answer.complete(format.error(record == null ? "" : record.id, number, e));
+        }
+    }
+
+    private void solve(OrderRecord record, Box container, List<Box> items, long number, Format format,
+                       CompletableFuture<String> answer) {
+        try {
+            answer.complete(format.answer(record.id, container.solverFit(items, options)));
+        } catch (RuntimeException e) {
+            answer.complete(format.error(record.id, number, e));
+        }
+    }
+
+    private static boolean isSkipped(String line, Format format) {
+        String trimmed = line.strip();
+        return trimmed.isEmpty() || trimmed.startsWith("#") || (format == Format.CSV && trimmed.startsWith("id,"));
+    }
+
+    static ThreadFactory threads(String prefix) {
+        var count = new AtomicInteger();
+
+        return task -> {
+            var thread = new Thread(task, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public enum Format {
+        // id,W,H,L,w1,h1,l1,... in, id,verdict,stage out
+        CSV {
+            @Override
+            OrderRecord parse(String line) {
+                return OrderRecord.parseCsv(line);
+            }
+
+            @Override
+            String answer(String id, FitResult result) {
+                return id + ',' + result.verdict() + ',' + result.stage();
+            }
+
+            @Override
+            String error(String id, long record, RuntimeException e) {
+                return id + ",ERROR,\"record " + record + ": " + String.valueOf(e.getMessage()).replace("\"", "\"\"")
+                    + '"';
+            }
+        },
+
+        // {"id": ..., "container": [W, H, L], "items": [[w1, h1, l1], ...]} in, {"id", "verdict", "stage"} out
+        JSONL {
+            @Override
+            OrderRecord parse(String line) {
+                return OrderRecord.parseJson(line);
+            }
+
+            @Override
+            String answer(String id, FitResult result) {
+                return "{\"id\":" + quote(id) + ",\"verdict\":\"" + result.verdict() + "\",\"stage\":\""
+                    + result.stage() + "\"}";
+            }
+
+            @Override
+            String error(String id, long record, RuntimeException e) {
+                return "{\"id\":" + quote(id) + ",\"verdict\":\"ERROR\",\"error\":"
+                    + quote("record " + record + ": " + e.getMessage()) + '}';
+            }
+        };
+
+        abstract OrderRecord parse(String line);
+
+        abstract String answer(String id, FitResult result);
+
+        abstract String error(String id, long record, RuntimeException e);
+
+        static String quote(String text) {
+            var result = new StringBuilder(text.length() + 2).append('"');
+
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+
+                switch (c) {
+                    case '"' -> result.append("\\\"");
+                    case '\\' -> result.append("\\\\");
+                    case '\n' -> result.append("\\n");
+                    case '\r' -> result.append("\\r");
+                    case '\t' -> result.append("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            result.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            result.append(c);
+                        }
+                    }
+                }
+            }
+
+            return result.append('"').toString();
+        }
+    }
+
+    // Writes the answers as they complete, in the order they were queued
+    private static final class OutputWriter implements Runnable {
+        static final CompletableFuture<String> END = new CompletableFuture<>();
+
+        private final BlockingQueue<CompletableFuture<String>> pending;
+        private final Writer out;
+
+        // Past it, answers are only taken off the queue so that reading does not block
+        volatile IOException failure;
+
+        OutputWriter(BlockingQueue<CompletableFuture<String>> pending, Writer out) {
+            this.pending = pending;
+            this.out = out;
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (var answer = pending.take(); answer != END; answer = pending.take()) {
+                    String line = answer.join();
+
+                    if (failure == null) {
+                        write(line);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void write(String line) {
+            try {
+                out.write(line);
+                out.write('\n');
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com;
+
+import java.util.List;
+
+/**
+ * A container, the items that go into it and where each of them goes, see {@link OrderSplitter#split(List)}.
+ */
+public final class Bin {
+    private final Box container;
+    private final List<Box> items;
+    private final Packing packing;
+
+    Bin(Box container, List<Box> items, Packing packing) {
+        this.container = container;
+        this.items = List.copyOf(items);
+        this.packing = packing;
+    }
+
+    public Box container() {
+        return container;
+    }
+
+    public List<Box> items() {
+        return items;
+    }
+
+    // Of the items in the same order
+    public Packing packing() {
+        return packing;
+    }
+
+    @Override
+    public String toString() {
+        return "Bin(" + container + ", " + items + ')';
+    }
+}
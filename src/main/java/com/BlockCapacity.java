@@ -0,0 +1,285 @@
+package com;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.Box.Rotation;
+
+/**
+ * How many copies of one item fit into every part of a container, by guillotine cuts. A block either holds
+ * the items in a grid, all turned the same way, or is cut in two along an axis and each part filled on its
+ * own. Only the sizes that are sums of item dimensions (normal patterns) are worth considering, a block is
+ * always as good as the largest of those that fits into it.
+ * <p>
+ * Computed for all the blocks at once, bottom up, so an item count for any slab of the container is a lookup.
+ */
+final class BlockCapacity {
+    private static final Rotation[] ROTATIONS = Rotation.values();
+
+    // A sum of item dimensions is only looked for up to this size
+    private static final int MAX_PATTERN_SIZE = 1 << 20;
+
+    // choice values, cuts are CUT + 3 * index of the cut size + axis
+    private static final int EMPTY = 0;
+    private static final int GRID = 1;
+    private static final int CUT = GRID + ROTATIONS.length;
+
+    private final Box item;
+
+    // Per axis, the normal patterns in ascending order, starting with 0
+    private final int[][] patterns;
+
+    private final int[] capacity;
+    private final int[] choice;
+
+    private BlockCapacity(Box item, int[][] patterns) {
+        this.item = item;
+        this.patterns = patterns;
+
+        int states = patterns[0].length * patterns[1].length * patterns[2].length;
+        capacity = new int[states];
+        choice = new int[states];
+
+        fill();
+    }
+
+    /**
+     * Null when working out the blocks of the container would cost more than {@code maxWork} cut checks, first
+     * trying all the normal patterns and then only the multiples of a single item dimension.
+     */
+    static BlockCapacity of(Box container, Box item, long maxWork) {
+        int[] size = {container.width(), container.height(), container.length()};
+
+        if (Math.max(size[0], Math.max(size[1], size[2])) > MAX_PATTERN_SIZE) {
+            return null;
+        }
+
+        int[] dimensions = {item.min(), item.med(), item.max()};
+
+        for (boolean uniform : new boolean[]{false, true}) {
+            int[][] patterns = new int[3][];
+
+            for (int axis = 0; axis < 3; axis++) {
+                patterns[axis] = uniform
+                    ? multiples(size[axis], dimensions)
+                    : NormalPatterns.sums(size[axis], dimensions);
+            }
+
+            long states = (long) patterns[0].length * patterns[1].length * patterns[2].length;
+            long cuts = (patterns[0].length + patterns[1].length + patterns[2].length) / 2 + ROTATIONS.length;
+
+            if (states * cuts <= maxWork) {
+                return new BlockCapacity(item, patterns);
+            }
+        }
+
+        return null;
+    }
+
+    // How many items fit into the whole container
+    int capacity() {
+        return capacity[capacity.length - 1];
+    }
+
+    /**
+     * The shortest extent along the axis (0 width, 1 height, 2 length) such that the container cut down to it
+     * still holds {@code quantity} items, -1 when not even the whole container does.
+     */
+    int shortest(int axis, int quantity) {
+        int[] index = fullIndex();
+
+        for (int k = 0; k < patterns[axis].length; k++) {
+            index[axis] = k;
+
+            if (capacity[state(index[0], index[1], index[2])] >= quantity) {
+                return patterns[axis][k];
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Places {@code count} items {@code items[from], ...}, all copies of the item, into the container cut down to
+     * {@code extent} along the axis and moved by {@code offset} along it. Expects them to fit.
+     */
+    void place(Packing packing, List<Box> boxes, int[] items, int from, int count, int axis, int offset, int extent) {
+        int[] index = fullIndex();
+        index[axis] = floor(axis, extent);
+
+        int[] origin = new int[3];
+        origin[axis] = offset;
+
+        int placed = place(packing, boxes, items, from, count, origin, index[0], index[1], index[2]);
+
+        if (placed < count) {
+            throw new IllegalStateException("Only " + placed + " of " + count + " items placed");
+        }
+    }
+
+    // Places up to count items into block (i, j, k) at origin, returns how many
+    private int place(Packing packing, List<Box> boxes, int[] items, int from, int count, int[] origin,
+                      int i, int j, int k) {
+        int s = state(i, j, k);
+        int c = choice[s];
+
+        if (c == EMPTY || count == 0) {
+            return 0;
+        }
+
+        if (c < CUT) {
+            int[] block = {patterns[0][i], patterns[1][j], patterns[2][k]};
+            return placeGrid(packing, boxes, items, from, count, origin, block, item, ROTATIONS[c - GRID]);
+        }
+
+        int axis = (c - CUT) % 3;
+        int cut = (c - CUT) / 3;
+
+        int[] first = {i, j, k};
+        int[] second = {i, j, k};
+        first[axis] = cut;
+        second[axis] = floor(axis, patterns[axis][second[axis]] - patterns[axis][cut]);
+
+        int placed = place(packing, boxes, items, from, count, origin, first[0], first[1], first[2]);
+
+        int[] shifted = origin.clone();
+        shifted[axis] += patterns[axis][cut];
+
+        return placed + place(packing, boxes, items, from + placed, count - placed, shifted,
+            second[0], second[1], second[2]);
+    }
+
+    /**
+     * Places up to {@code count} copies of the item, all turned by r, in a grid filling the block at origin.
+     * Returns how many.
+     */
+    static int placeGrid(Packing packing, List<Box> boxes, int[] items, int from, int count, int[] origin,
+                         int[] block, Box item, Rotation r) {
+        int w = item.width(r);
+        int h = item.height(r);
+        int l = item.length(r);
+        int placed = 0;
+
+        for (int z = 0; z + l <= block[2] && placed < count; z += l) {
+            for (int y = 0; y + h <= block[1] && placed < count; y += h) {
+                for (int x = 0; x + w <= block[0] && placed < count; x += w) {
+                    var box = boxes.get(items[from + placed]);
+
+                    packing.place(items[from + placed], origin[0] + x, origin[1] + y, origin[2] + z,
+                        box.rotationFor(w, h, l));
+                    placed++;
+                }
+            }
+        }
+
+        return placed;
+    }
+
+    // Smaller blocks have smaller indices on every axis, so they are always done first
+    private void fill() {
+        int[] pw = patterns[0];
+        int[] ph = patterns[1];
+        int[] pl = patterns[2];
+
+        // Moving one pattern along each axis
+        int[] strides = {ph.length * pl.length, pl.length, 1};
+        int[][][] rests = {rests(0), rests(1), rests(2)};
+
+        var rotations = item.getDistinctRotations();
+        int[][] dims = new int[rotations.length][];
+
+        for (int r = 0; r < rotations.length; r++) {
+            dims[r] = new int[]{item.width(rotations[r]), item.height(rotations[r]), item.length(rotations[r])};
+        }
+
+        int[] index = new int[3];
+
+        for (int i = 0; i < pw.length; i++) {
+            for (int j = 0; j < ph.length; j++) {
+                for (int k = 0; k < pl.length; k++) {
+                    int s = state(i, j, k);
+                    long best = 0;
+                    int bestChoice = EMPTY;
+
+                    for (int r = 0; r < rotations.length; r++) {
+                        long grid = (long) (pw[i] / dims[r][0]) * (ph[j] / dims[r][1]) * (pl[k] / dims[r][2]);
+
+                        if (grid > best) {
+                            best = grid;
+                            bestChoice = GRID + rotations[r].ordinal();
+                        }
+                    }
+
+                    index[0] = i;
+                    index[1] = j;
+                    index[2] = k;
+
+                    // Cutting at x or at the size - x gives the same parts
+                    for (int axis = 0; axis < 3; axis++) {
+                        int[] rest = rests[axis][index[axis]];
+                        int base = s - index[axis] * strides[axis];
+
+                        for (int c = 1; c < rest.length; c++) {
+                            long cut = (long) capacity[base + c * strides[axis]] +
+                                capacity[base + rest[c] * strides[axis]];
+
+                            if (cut > best) {
+                                best = cut;
+                                bestChoice = CUT + 3 * c + axis;
+                            }
+                        }
+                    }
+
+                    capacity[s] = (int) Math.min(best, Integer.MAX_VALUE);
+                    choice[s] = bestChoice;
+                }
+            }
+        }
+    }
+
+    // rests[i][c] is the pattern left by cutting pattern i at pattern c, for the cuts up to half of it
+    private int[][] rests(int axis) {
+        int[] p = patterns[axis];
+        int[][] rests = new int[p.length][];
+
+        for (int i = 0; i < p.length; i++) {
+            int cuts = 1;
+
+            while (cuts < i && 2 * p[cuts] <= p[i]) {
+                cuts++;
+            }
+
+            rests[i] = new int[cuts];
+
+            for (int c = 1; c < cuts; c++) {
+                rests[i][c] = floor(axis, p[i] - p[c]);
+            }
+        }
+
+        return rests;
+    }
+
+    private int[] fullIndex() {
+        return new int[]{patterns[0].length - 1, patterns[1].length - 1, patterns[2].length - 1};
+    }
+
+    private int state(int i, int j, int k) {
+        return (i * patterns[1].length + j) * patterns[2].length + k;
+    }
+
+    // Index of the largest pattern not over value
+    private int floor(int axis, int value) {
+        int index = Arrays.binarySearch(patterns[axis], value);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    // Multiples of each single dimension up to the size
+    private static int[] multiples(int size, int[] dimensions) {
+        return Arrays.stream(dimensions)
+                     .flatMap(d -> IntStream.rangeClosed(0, size / d).map(m -> m * d))
+                     .distinct()
+                     .sorted()
+                     .toArray();
+    }
+}
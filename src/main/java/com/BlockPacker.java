@@ -0,0 +1,176 @@
+package com;
+
+import java.util.List;
+
+import static com.Box.Rotation;
+
+/**
+ * Packs items that come as a few kinds of identical boxes: every kind gets its own slab of the container, the
+ * slabs side by side along one axis. A slab is first tried as a plain grid of items all turned the same way,
+ * then filled with guillotine blocks by {@link BlockCapacity} when every kind comes in enough copies for the
+ * blocks to be worth their table. Meant for orders of hundreds of the same carton, far out of reach of the
+ * solver.
+ * <p>
+ * Only ever proves a fit, a failure means nothing.
+ */
+final class BlockPacker {
+    static final int MAX_KINDS = 4;
+
+    // Guillotine blocks only for kinds of at least as many copies, fewer are left to the later stages
+    static final int MIN_BLOCK_COPIES = 8;
+
+    // Cut checks over all the kinds, a few milliseconds at most
+    private static final long MAX_WORK = 4_000_000;
+
+    private final Box container;
+    private final List<Box> boxes;
+    private final int[] size;
+
+    // Kind k is order[starts[k]], ... order[starts[k + 1] - 1]
+    private final int[] order;
+    private final int[] starts = new int[MAX_KINDS + 1];
+    private int kinds;
+
+    private BlockPacker(Box container, List<Box> boxes) {
+        this.container = container;
+        this.boxes = boxes;
+
+        size = new int[]{container.width(), container.height(), container.length()};
+        order = Box.order(boxes, Box.BOX_COMPARATOR);
+    }
+
+    /**
+     * Fills packing, unless it is null, when the items fit.
+     */
+    static boolean pack(Box container, List<Box> boxes, Packing packing) {
+        var packer = new BlockPacker(container, boxes);
+        return packer.group() && (packer.grids(packing) || packer.blocks(packing));
+    }
+
+    // False when there are too many kinds
+    private boolean group() {
+        for (int p = 0; p < order.length; p++) {
+            if (p == 0 || !boxes.get(order[p]).equals(boxes.get(order[p - 1]))) {
+                if (kinds == MAX_KINDS) {
+                    return false;
+                }
+
+                starts[kinds++] = p;
+            }
+        }
+
+        starts[kinds] = order.length;
+        return true;
+    }
+
+    private boolean grids(Packing packing) {
+        int[] extents = new int[kinds];
+        var rotations = new Rotation[kinds];
+
+        for (int axis = 0; axis < 3; axis++) {
+            long total = 0;
+
+            for (int k = 0; k < kinds && total <= size[axis]; k++) {
+                Box item = boxes.get(order[starts[k]]);
+                extents[k] = -1;
+
+                for (var r : item.getDistinctRotations()) {
+                    int extent = gridExtent(item, r, axis, starts[k + 1] - starts[k]);
+
+                    if (extent >= 0 && (extents[k] < 0 || extent < extents[k])) {
+                        extents[k] = extent;
+                        rotations[k] = r;
+                    }
+                }
+
+                total = extents[k] < 0 ? Long.MAX_VALUE : total + extents[k];
+            }
+
+            if (total > size[axis]) {
+                continue;
+            }
+
+            if (packing != null) {
+                int[] origin = new int[3];
+                int[] block = size.clone();
+
+                for (int k = 0; k < kinds; k++) {
+                    block[axis] = extents[k];
+                    BlockCapacity.placeGrid(packing, boxes, order, starts[k], starts[k + 1] - starts[k], origin,
+                        block, boxes.get(order[starts[k]]), rotations[k]);
+                    origin[axis] += extents[k];
+                }
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    // Length along the axis of a grid of the items turned by r across the container, -1 if none fits across
+    private int gridExtent(Box item, Rotation r, int axis, int quantity) {
+        int[] dims = {item.width(r), item.height(r), item.length(r)};
+        long across = 1;
+
+        for (int a = 0; a < 3; a++) {
+            if (a != axis) {
+                across *= size[a] / dims[a];
+            }
+        }
+
+        if (across == 0) {
+            return -1;
+        }
+
+        long extent = (quantity + across - 1) / across * dims[axis];
+        return extent <= size[axis] ? (int) extent : -1;
+    }
+
+    private boolean blocks(Packing packing) {
+        for (int k = 0; k < kinds; k++) {
+            if (starts[k + 1] - starts[k] < MIN_BLOCK_COPIES) {
+                return false;
+            }
+        }
+
+        var blocks = new BlockCapacity[kinds];
+
+        for (int k = 0; k < kinds; k++) {
+            blocks[k] = BlockCapacity.of(container, boxes.get(order[starts[k]]), MAX_WORK / kinds);
+
+            if (blocks[k] == null) {
+                return false;
+            }
+        }
+
+        int[] extents = new int[kinds];
+
+        for (int axis = 0; axis < 3; axis++) {
+            long total = 0;
+
+            for (int k = 0; k < kinds && total <= size[axis]; k++) {
+                extents[k] = blocks[k].shortest(axis, starts[k + 1] - starts[k]);
+                total = extents[k] < 0 ? Long.MAX_VALUE : total + extents[k];
+            }
+
+            if (total > size[axis]) {
+                continue;
+            }
+
+            if (packing != null) {
+                int offset = 0;
+
+                for (int k = 0; k < kinds; k++) {
+                    blocks[k].place(packing, boxes, order, starts[k], starts[k + 1] - starts[k],
+                        axis, offset, extents[k]);
+                    offset += extents[k];
+                }
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+}
@@ -1,20 +1,25 @@
 package com;
 
-import org.chocosolver.solver.Model;
+import org.chocosolver.solver.ParallelPortfolio;
 import org.chocosolver.solver.Solver;
-import org.chocosolver.solver.variables.BoolVar;
-import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.search.SearchState;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static com.Box.Rotation.*;
+import static com.Box.Verdict.*;
+import static com.FitResult.Stage;
 
 public final class Box implements Comparable<Box> {
     // Config
-    private static final int DISABLE_TIME_LIMIT = -1;
+    private static final int PACKED_DIMENSION_BITS = 21;
+    private static final int PACKED_DIMENSION_LIMIT = 1 << PACKED_DIMENSION_BITS;
+    private static final long EXTREME_POINT_BUDGET_NANOS = 2_000_000;
 
     // Array rotations
     private static final Rotation[] ROTATIONS = Rotation.values();
@@ -23,7 +28,7 @@ public final class Box implements Comparable<Box> {
     private static final Rotation[] ROTATIONS_W_EQ_L = {R0, R2, R3};
     private static final Rotation[] ROTATIONS_H_EQ_L = {R0, R1, R3};
 
-    private static final Comparator<Box> BOX_COMPARATOR =
+    static final Comparator<Box> BOX_COMPARATOR =
         Comparator.comparingLong((Box b) -> b.volume)
                   .thenComparingInt(b -> b.max)
                   .thenComparingInt(b -> b.med)
@@ -68,58 +73,185 @@ public final class Box implements Comparable<Box> {
     }
 
     public boolean canTheseFitIn(List<Box> boxes) {
-        return _canTheseFitIn(boxes, DISABLE_TIME_LIMIT, false);
+        return verdict(boxes) == FITS;
     }
 
     public boolean canTheseFitIn(List<Box> boxes, int limitMs) {
-        if (limitMs <= 0) {
-            throw new IllegalArgumentException("limitMs must be a positive number");
+        return verdict(boxes, limitMs) == FITS;
+    }
+
+    public boolean canTheseFitIn(List<Box> boxes, FitOptions options) {
+        return verdict(boxes, options) == FITS;
+    }
+
+    public Optional<Packing> packInto(List<Box> boxes) {
+        return packInto(boxes, FitOptions.defaults());
+    }
+
+    public Optional<Packing> packInto(List<Box> boxes, int limitMs) {
+        return packInto(boxes, FitOptions.defaults().withTimeLimit(limitMs));
+    }
+
+    /**
+     * Same answer as {@link #canTheseFitIn(List, FitOptions)}, along with where each item goes. The placement
+     * comes from whichever check proved the fit, so there is no second packing pass.
+     */
+    public Optional<Packing> packInto(List<Box> boxes, FitOptions options) {
+        var packing = new Packing(this, boxes);
+
+        if (fit(boxes, ItemStats.of(boxes), options, packing, null).fits()) {
+            return Optional.of(packing);
         }
 
-        return _canTheseFitIn(boxes, limitMs, false);
+        return Optional.empty();
     }
 
-    private boolean _canTheseFitIn(List<Box> boxes, int limitMs, boolean alreadyScaled) {
-        // Quick check
-        int minLengthSum = 0;
-        long totalVolume = 0;
-        int boxesMaxDimension = 0;
-
-        for (var box : boxes) {
-            // Check if they fit "1 in 1"
-            if (max < box.max || med < box.med || min < box.min) {
-                return false;
-            }
+    public FitResult fit(List<Box> boxes) {
+        return fit(boxes, FitOptions.defaults());
+    }
+
+    public FitResult fit(List<Box> boxes, int limitMs) {
+        return fit(boxes, FitOptions.defaults().withTimeLimit(limitMs));
+    }
+
+    /**
+     * Like {@link #canTheseFitIn(List, FitOptions)}, but tells a proven misfit apart from a solver timeout and
+     * reports which stage decided.
+     */
+    public FitResult fit(List<Box> boxes, FitOptions options) {
+        return fit(boxes, ItemStats.of(boxes), options, null, null);
+    }
+
+    public FitResult fitGroups(List<ItemGroup> groups) {
+        return fitGroups(groups, FitOptions.defaults());
+    }
+
+    /**
+     * Same as {@link #fit(List, FitOptions)} on every group repeated its quantity times. Orders of a few kinds of
+     * items in large quantities are packed in blocks of identical items before the solver is tried.
+     */
+    public FitResult fitGroups(List<ItemGroup> groups, FitOptions options) {
+        return fit(ItemGroup.expand(groups), options);
+    }
+
+    // Fills packing on a fit, the solver starts from hint where it places the same leading items
+    FitResult fit(List<Box> boxes, ItemStats stats, FitOptions options, Packing packing, Packing hint) {
+        if (!FitMetrics.isEnabled()) {
+            return coarseThenExact(boxes, stats, options, packing, hint);
+        }
+
+        long start = System.nanoTime();
+        var result = coarseThenExact(boxes, stats, options, packing, hint);
+        FitMetrics.record(result, System.nanoTime() - start);
+
+        return result;
+    }
 
-            minLengthSum += box.min;
-            totalVolume += box.volume;
+    // Items rounded up into a container rounded down fit for real, anything but a fit there needs the exact checks.
+    // The coarse pass stops short of the solver, so the whole time limit is left to the exact one
+    private FitResult coarseThenExact(List<Box> boxes, ItemStats stats, FitOptions options, Packing packing,
+                                      Packing hint) {
+        int resolution = options.coarseResolution();
+
+        if (resolution > 1 && min >= resolution) {
+            var coarseBoxes = boxes.stream().map(b -> b.roundUp(resolution)).toList();
+            var coarseContainer = roundDown(resolution);
+            var result = coarseContainer._canTheseFitIn(
+                coarseBoxes, ItemStats.of(coarseBoxes), options.withoutSolver(), false, packing, null);
+
+            if (result.fits()) {
+                if (packing != null) {
+                    packing.scaleUp(resolution);
+                }
 
-            if (box.max > boxesMaxDimension) {
-                boxesMaxDimension = box.max;
+                return result.scaledBy(resolution * result.scale());
             }
         }
 
+        return _canTheseFitIn(boxes, stats, options, false, packing, hint);
+    }
+
+    Verdict verdict(List<Box> boxes) {
+        return verdict(boxes, FitOptions.defaults());
+    }
+
+    Verdict verdict(List<Box> boxes, int limitMs) {
+        return verdict(boxes, FitOptions.defaults().withTimeLimit(limitMs));
+    }
+
+    Verdict verdict(List<Box> boxes, FitOptions options) {
+        return verdict(boxes, ItemStats.of(boxes), options);
+    }
+
+    // For callers that reuse the aggregates across containers
+    Verdict verdict(List<Box> boxes, ItemStats stats, FitOptions options) {
+        return fit(boxes, stats, options, null, null).verdict();
+    }
+
+    // Check if they fit "1 in 1"
+    boolean fitsOneInOne(ItemStats stats) {
+        return max >= stats.maxMax && med >= stats.maxMed && min >= stats.maxMin;
+    }
+
+    boolean dominates(Box other) {
+        return max >= other.max && med >= other.med && min >= other.min;
+    }
+
+    // Writes the placements into packing on a fit, unless it is null
+    private FitResult _canTheseFitIn(List<Box> boxes, ItemStats stats, FitOptions options, boolean alreadyScaled,
+                                   Packing packing, Packing hint) {
+        // Quick check
+        if (!fitsOneInOne(stats)) {
+            return FitResult.doesNotFit(Stage.DOMINANCE);
+        }
+
+        int boxesMaxDimension = stats.maxMax;
+
         // They fit individually, so if we stack them on the min and check
-        if (minLengthSum <= min) {
-            return true;
+        if (stats.minSum <= min) {
+            if (packing != null) {
+                int[] axes = axesBySize();
+                int stackH = 0;
+
+                for (int i = 0; i < boxes.size(); i++) {
+                    var box = boxes.get(i);
+                    place(packing, i, box, axes, stackH, 0);
+                    stackH += box.min;
+                }
+            }
+
+            return FitResult.fits(Stage.MIN_STACK);
         }
 
         // If they have more volume we reject
-        if (volume < totalVolume) {
-            return false;
+        if (volume < stats.totalVolume) {
+            return FitResult.doesNotFit(Stage.VOLUME);
         }
 
         // If we slice the box into cubes that are the max dimension and we have more cubes than items then they fit
         if ((width / boxesMaxDimension) *
             (height / boxesMaxDimension) *
-            (length / boxesMaxDimension) >= boxes.size()) {
-            return true;
+            (length / boxesMaxDimension) >= stats.count) {
+            if (packing != null) {
+                int cellsX = width / boxesMaxDimension;
+                int cellsY = height / boxesMaxDimension;
+
+                for (int i = 0; i < boxes.size(); i++) {
+                    packing.place(i,
+                        (i % cellsX) * boxesMaxDimension,
+                        (i / cellsX % cellsY) * boxesMaxDimension,
+                        (i / cellsX / cellsY) * boxesMaxDimension,
+                        R0);
+                }
+            }
+
+            return FitResult.fits(Stage.CUBE_SLICE);
         }
 
         // Try multistacking;
         {
-            var perimeterBoxes = new ArrayList<>(boxes);
-            perimeterBoxes.sort(Comparator.comparingLong(Box::dimSummedPartial).reversed());
+            int[] perimeterOrder = order(boxes, Comparator.comparingLong(Box::dimSummedPartial).reversed());
+            int[] axes = packing != null ? axesBySize() : null;
 
             int stackH = 0;
             int stackMax = 0;
@@ -127,7 +259,9 @@ public final class Box implements Comparable<Box> {
 
             boolean allFits = true;
 
-            for (var box : perimeterBoxes) {
+            for (int i : perimeterOrder) {
+                var box = boxes.get(i);
+
                 if (stackH + box.min > min) {
                     curMax -= stackMax;
                     stackH = 0;
@@ -140,6 +274,10 @@ public final class Box implements Comparable<Box> {
                 }
 
                 if (stackH + box.min <= min) {
+                    if (packing != null) {
+                        place(packing, i, box, axes, stackH, max - curMax);
+                    }
+
                     stackH += box.min;
 
                     if (stackMax < box.max) {
@@ -149,141 +287,291 @@ public final class Box implements Comparable<Box> {
             }
 
             if (allFits) {
-                return true;
+                return FitResult.fits(Stage.MULTISTACK);
             }
         }
 
         if (!alreadyScaled && gcd > 1) {
-            int scale = gcd(gcd, gcd(boxes.stream().mapToInt(b -> b.gcd).toArray()));
+            int scale = gcd(gcd, stats.gcd);
 
             if (scale > 1) {
                 var newBoxes = boxes.stream().map(b -> b.scaleDown(scale)).toList();
-                return scaleDown(scale)._canTheseFitIn(newBoxes, limitMs, true);
+                var newContainer = scaleDown(scale);
+                var newHint = hint != null ? hint.scaleDown(newContainer, newBoxes, scale) : null;
+                var result = newContainer._canTheseFitIn(
+                    newBoxes, stats.scaleDown(scale), options, true, packing, newHint);
+
+                if (result.fits() && packing != null) {
+                    packing.scaleUp(scale);
+                }
+
+                return result.scaledBy(scale);
             }
 
+        }
+
+        // Stronger volume bounds
+        {
+            var bound = LowerBounds.violated(this, boxes);
+
+            if (bound != null) {
+                return FitResult.doesNotFit(switch (bound) {
+                    case L1 -> Stage.LOWER_BOUND_L1;
+                    case L2 -> Stage.LOWER_BOUND_L2;
+                    case DFF -> Stage.LOWER_BOUND_DFF;
+                });
+            }
+        }
+
+        // Large quantities of a few kinds of items
+        if (BlockPacker.pack(this, boxes, packing)) {
+            return FitResult.fits(Stage.BLOCK);
+        }
+
+        // Constructive packing, cheap compared to a model
+        {
+            var packer = new ExtremePointPacker(this, boxes);
 
+            if (packer.pack(EXTREME_POINT_BUDGET_NANOS)) {
+                if (packing != null) {
+                    packer.copyTo(packing);
+                }
+
+                return FitResult.fits(Stage.EXTREME_POINT);
+            }
         }
 
-        // Bring out the big guns
-        boxes = new ArrayList<>(boxes);
-        boxes.sort(BOX_COMPARATOR.reversed());
+        // A few large items placed exactly, the small ones around them
+        {
+            var result = Decomposition.fit(this, boxes, options, packing);
+
+            if (result != null) {
+                return result;
+            }
+        }
 
-        int n = boxes.size();
-        Model model = new Model("Boxes into box");
+        if (options.skipsSolver()) {
+            return FitResult.solverSkipped();
+        }
 
-        // Coordinates at lower left point (regardless of rotation)
-        IntVar[] xs = new IntVar[n];
-        IntVar[] ys = new IntVar[n];
-        IntVar[] zs = new IntVar[n];
+        return solve(boxes, options, packing, hint);
+    }
 
-        // Relative position
-        BoolVar[][] ls = new BoolVar[n][];
-        BoolVar[][] us = new BoolVar[n][];
-        BoolVar[][] bs = new BoolVar[n][];
+    /**
+     * Only the solver, on the instance scaled down the way the pipeline would, for instances that all the other
+     * stages already left undecided.
+     */
+    FitResult solverFit(List<Box> boxes, FitOptions options) {
+        long start = System.nanoTime();
+        int scale = gcd(gcd, ItemStats.of(boxes).gcd);
+        FitResult result;
+
+        if (scale > 1) {
+            var newBoxes = boxes.stream().map(b -> b.scaleDown(scale)).toList();
+            result = scaleDown(scale).solve(newBoxes, options, null, null).scaledBy(scale);
+        } else {
+            result = solve(boxes, options, null, null);
+        }
 
-        for (int i = 0; i < n; i++) {
-            Box ibox = boxes.get(i);
+        if (FitMetrics.isEnabled()) {
+            FitMetrics.record(result, System.nanoTime() - start);
+        }
 
-            ls[i] = new BoolVar[n];
-            us[i] = new BoolVar[n];
-            bs[i] = new BoolVar[n];
+        return result;
+    }
 
-            xs[i] = model.intVar("x_" + i, 0, width - ibox.min);
-            ys[i] = model.intVar("y_" + i, 0, height - ibox.min);
-            zs[i] = model.intVar("z_" + i, 0, length - ibox.min);
+    private FitResult solve(List<Box> boxes, FitOptions options, Packing packing, Packing hint) {
+        // Bring out the big guns, biggest items first
+        int[] order = order(boxes, BOX_COMPARATOR.reversed());
+        List<Box> sorted = IntStream.of(order).mapToObj(boxes::get).toList();
+
+        // A few items are searched for directly, the model only gets the ones that take too long and the ones
+        // asked of a portfolio or of another formulation
+        if (boxes.size() <= SmallPacker.MAX_ITEMS && options.portfolioThreads() == 1
+            && options.formulation() == FitOptions.Formulation.PAIRWISE) {
+            var event = new SmallSearchEvent();
+            event.begin();
+
+            var result = new SmallPacker(this, sorted).solve(options, packing, order);
+
+            if (result != null) {
+                event.end();
+
+                if (event.shouldCommit()) {
+                    event.items = boxes.size();
+                    event.verdict = result.verdict().name();
+                    event.nodes = result.solverNodes();
+                    event.fails = result.solverFails();
+                    event.backtracks = result.solverBacktracks();
+                    event.commit();
+                }
 
-            for (int j = i + 1; j < n; j++) {
-                ls[i][j] = model.boolVar("ls_" + i + "_" + j);
-                us[i][j] = model.boolVar("us_" + i + "_" + j);
-                bs[i][j] = model.boolVar("bs_" + i + "_" + j);
+                return result;
             }
         }
 
-        // Chosen per box
-        IntVar[] rot = new IntVar[n];
-        IntVar[] cW  = new IntVar[n];
-        IntVar[] cH  = new IntVar[n];
-        IntVar[] cL  = new IntVar[n];
+        if (options.portfolioThreads() > 1) {
+            return solvePortfolio(sorted, order, options, packing, hint);
+        }
+
+        // Reuses the model of an earlier call with as many items in this container
+        var pool = ModelPool.get();
+        var model = pool.acquire(this, sorted, options.formulation(), options.symmetryBreaking());
+
+        try {
+            Solver solver = model.model.getSolver();
+
+            if (hint != null) {
+                model.hint(hint, order);
+            }
+
+            if (options.hasTimeLimit()) {
+                solver.limitTime(options.limitMs());
+            }
+
+            var event = new SolverEvent();
+            event.begin();
+
+            long start = System.nanoTime();
+            boolean solved = solver.solve();
+            long timeNanos = System.nanoTime() - start;
+
+            if (solved && packing != null) {
+                model.copyTo(packing, order);
+            }
+
+            var verdict = solved ? FITS : solver.isStopCriterionMet() ? UNKNOWN : DOES_NOT_FIT;
+            var result = FitResult.solved(
+                verdict, solver.getNodeCount(), solver.getFailCount(), solver.getBackTrackCount(), timeNanos);
 
+            commit(event, boxes.size(), options, result);
+            return result;
+        } finally {
+            pool.release(model);
+        }
+    }
 
-        for (int i = 0; i < n; i++) {
-            Box ibox = boxes.get(i);
-            int iboxRotationsCount = ibox.getDistinctRotationsCount();
-            Rotation[] iboxRotations = ibox.getDistinctRotations();
+    private FitResult solvePortfolio(List<Box> boxes, int[] order, FitOptions options, Packing packing, Packing hint) {
+        var portfolio = new ParallelPortfolio(false);
+        List<PackingModel> models = new ArrayList<>();
 
-            int[] possibleHeights = new int[iboxRotationsCount];
-            int[] possibleWidths  = new int[iboxRotationsCount];
-            int[] possibleLengths = new int[iboxRotationsCount];
+        for (int i = 0; i < options.portfolioThreads(); i++) {
+            var model = new PackingModel(this, boxes, options.formulation(), options.symmetryBreaking());
+            model.diversify(i);
 
-            for (int j = 0; j < iboxRotationsCount; j++) {
-                possibleHeights[j] = ibox.height(iboxRotations[j]);
-                possibleWidths[j]  = ibox.width(iboxRotations[j]);
-                possibleLengths[j] = ibox.length(iboxRotations[j]);
+            if (hint != null) {
+                model.hint(hint, order);
             }
 
-            rot[i] = model.intVar("rot_" + i, 0, iboxRotationsCount - 1);
+            if (options.hasTimeLimit()) {
+                model.model.getSolver().limitTime(options.limitMs());
+            }
+
+            models.add(model);
+            portfolio.addModel(model.model);
+        }
+
+        var event = new SolverEvent();
+        event.begin();
 
-            cH[i] = model.intVar("chosenHeight_" + i, possibleHeights);
-            cW[i] = model.intVar("chosenWidth_" + i, possibleWidths);
-            cL[i] = model.intVar("chosenLength_" + i, possibleLengths);
+        long start = System.nanoTime();
+        boolean solved = portfolio.solve();
+        long timeNanos = System.nanoTime() - start;
 
-            model.element(cH[i], possibleHeights, rot[i]).post();
-            model.element(cW[i], possibleWidths,  rot[i]).post();
-            model.element(cL[i], possibleLengths, rot[i]).post();
+        long nodes = 0;
+        long fails = 0;
+        long backtracks = 0;
 
-            // Container Bounds
-            model.arithm(xs[i], "+", cW[i], "<=", width).post();
-            model.arithm(ys[i], "+", cH[i], "<=", height).post();
-            model.arithm(zs[i], "+", cL[i], "<=", length).post();
+        for (var model : models) {
+            nodes += model.model.getSolver().getNodeCount();
+            fails += model.model.getSolver().getFailCount();
+            backtracks += model.model.getSolver().getBackTrackCount();
         }
 
-        for (int i = 0; i < n; i++) {
-            for (int j = i + 1; j < n; j++) {
-                model.arithm(xs[i], "+", cW[i], "<=", xs[j]).reifyWith(ls[i][j]);
-                model.arithm(ys[i], "+", cH[i], "<=", ys[j]).reifyWith(us[i][j]);
-                model.arithm(zs[i], "+", cL[i], "<=", zs[j]).reifyWith(bs[i][j]);
+        var result = FitResult.solved(portfolioVerdict(solved, models), nodes, fails, backtracks, timeNanos);
+        commit(event, boxes.size(), options, result);
 
-                model.addClausesBoolOrArrayEqualTrue(new BoolVar[]{ls[i][j], us[i][j], bs[i][j]});
+        if (solved && packing != null) {
+            // The winner stops right on its solution
+            for (var model : models) {
+                if (model.model.getSolver().getSolutionCount() > 0) {
+                    model.copyTo(packing, order);
+                    break;
+                }
             }
         }
 
-        // identical boxes -> enforce ordering
-        for (int i = 0; i < n - 1; i++) {
-            Box bi = boxes.get(i);
-            Box bj = boxes.get(i + 1);
+        return result;
+    }
 
-            if (Arrays.equals(bi.getDimensionsSortedAsc(), bj.getDimensionsSortedAsc())) {
-                model.lexLessEq(
-                    new IntVar[]{xs[i], ys[i], zs[i]},
-                    new IntVar[]{xs[i+1], ys[i+1], zs[i+1]}
-                ).post();
+    private static Verdict portfolioVerdict(boolean solved, List<PackingModel> models) {
+        if (solved) {
+            return FITS;
+        }
+
+        // The others are stopped as soon as one search runs to completion
+        for (var model : models) {
+            Solver solver = model.model.getSolver();
+
+            if (solver.getSearchState() == SearchState.TERMINATED && !solver.isStopCriterionMet()) {
+                return DOES_NOT_FIT;
             }
         }
 
-        Solver solver = model.getSolver();
+        return UNKNOWN;
+    }
 
-        if (limitMs != DISABLE_TIME_LIMIT) {
-            solver.limitTime(limitMs);
+    private static void commit(SolverEvent event, int items, FitOptions options, FitResult result) {
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.items = items;
+            event.portfolioThreads = options.portfolioThreads();
+            event.formulation = options.formulation().name();
+            event.verdict = result.verdict().name();
+            event.nodes = result.solverNodes();
+            event.fails = result.solverFails();
+            event.backtracks = result.solverBacktracks();
+            event.commit();
+        }
+    }
+
+    // Container axes (0 width, 1 height, 2 length) from the shortest to the longest
+    private int[] axesBySize() {
+        int[] axes = {0, 1, 2};
+        int[] dims = {width, height, length};
+
+        for (int i = 1; i < 3; i++) {
+            for (int j = i; j > 0 && dims[axes[j - 1]] > dims[axes[j]]; j--) {
+                int axis = axes[j];
+                axes[j] = axes[j - 1];
+                axes[j - 1] = axis;
+            }
         }
 
-        boolean solved = solver.solve();
-//        if (solved) {
-//            System.out.println("Solution found:");
-//            for (int i = 0; i < n; i++) {
-//                int xVal = xs[i].getValue();
-//                int yVal = ys[i].getValue();
-//                int zVal = zs[i].getValue();
-//                int wVal = cW[i].getValue();
-//                int hVal = cH[i].getValue();
-//                int lVal = cL[i].getValue();
-//
-//                System.out.printf(
-//                    "Box %d -> (x=%d, y=%d, z=%d), w=%d, h=%d, l=%d%n",
-//                    i, xVal, yVal, zVal, wVal, hVal, lVal
-//                );
-//            }
-//        }
-        return solved;
+        return axes;
+    }
+
+    // Item min along the container min, med along med and max along max, offset along the min and max axes
+    private static void place(Packing packing, int i, Box box, int[] axes, int minOffset, int maxOffset) {
+        int[] dims = new int[3];
+        dims[axes[0]] = box.min;
+        dims[axes[1]] = box.med;
+        dims[axes[2]] = box.max;
+
+        int[] position = new int[3];
+        position[axes[0]] = minOffset;
+        position[axes[2]] = maxOffset;
+
+        packing.place(i, position[0], position[1], position[2], box.rotationFor(dims[0], dims[1], dims[2]));
+    }
+
+    static int[] order(List<Box> boxes, Comparator<Box> comparator) {
+        return IntStream.range(0, boxes.size())
+                        .boxed()
+                        .sorted((a, b) -> comparator.compare(boxes.get(a), boxes.get(b)))
+                        .mapToInt(Integer::intValue)
+                        .toArray();
     }
 
 
@@ -309,7 +597,7 @@ public final class Box implements Comparable<Box> {
         return length;
     }
 
-    int height(Rotation r) {
+    public int height(Rotation r) {
         return switch (r) {
             case R0, R1 -> height;
             case R2, R3 -> width;
@@ -317,7 +605,7 @@ public final class Box implements Comparable<Box> {
         };
     }
 
-    int length(Rotation r) {
+    public int length(Rotation r) {
         return switch (r) {
             case R0, R3 -> length;
             case R1, R5 -> width;
@@ -325,7 +613,7 @@ public final class Box implements Comparable<Box> {
         };
     }
 
-    int width(Rotation r) {
+    public int width(Rotation r) {
         return switch (r) {
             case R0, R4 -> width;
             case R1, R2 -> length;
@@ -333,7 +621,17 @@ public final class Box implements Comparable<Box> {
         };
     }
 
-    private int getDistinctRotationsCount() {
+    Rotation rotationFor(int width, int height, int length) {
+        for (var r : ROTATIONS) {
+            if (width(r) == width && height(r) == height && length(r) == length) {
+                return r;
+            }
+        }
+
+        throw new IllegalArgumentException("Not a rotation of " + this + ": " + width + ", " + height + ", " + length);
+    }
+
+    int getDistinctRotationsCount() {
         if (width == height && height == length) {
             return 1;
         }
@@ -365,10 +663,38 @@ public final class Box implements Comparable<Box> {
         return ROTATIONS;
     }
 
+    int max() {
+        return max;
+    }
+
+    int med() {
+        return med;
+    }
+
+    int min() {
+        return min;
+    }
+
+    int gcd() {
+        return gcd;
+    }
+
     public int[] getDimensionsSortedAsc() {
         return dimSorted;
     }
 
+    /**
+     * Orientation independent encoding of the sorted dimensions in a single long, or -1 when a dimension
+     * does not fit in {@value #PACKED_DIMENSION_BITS} bits.
+     */
+    long packed() {
+        if (max >= PACKED_DIMENSION_LIMIT) {
+            return -1;
+        }
+
+        return ((long) max << (2 * PACKED_DIMENSION_BITS)) | ((long) med << PACKED_DIMENSION_BITS) | min;
+    }
+
     private int dimSummedPartial() {
         return width + height + length;
     }
@@ -385,7 +711,18 @@ public final class Box implements Comparable<Box> {
         return new Box(width / factor, height / factor, length / factor);
     }
 
-    private int gcd(int a, int b) {
+    private Box roundUp(int resolution) {
+        return new Box(
+            (width + resolution - 1) / resolution,
+            (height + resolution - 1) / resolution,
+            (length + resolution - 1) / resolution);
+    }
+
+    private Box roundDown(int resolution) {
+        return new Box(width / resolution, height / resolution, length / resolution);
+    }
+
+    static int gcd(int a, int b) {
         if (b == 0) {
             return a;
         }
@@ -393,24 +730,10 @@ public final class Box implements Comparable<Box> {
         return gcd(b, a %b );
     }
 
-    private int gcd(int a, int b, int c) {
+    private static int gcd(int a, int b, int c) {
         return gcd(a, gcd(b, c));
     }
 
-    private int gcd(int[] arr) {
-        int gcd = arr[0];
-
-        for (int i = 1; i < arr.length; i++) {
-            gcd = gcd(gcd, arr[i]);
-
-            if (gcd == 1) {
-                return 1;
-            }
-        }
-
-        return gcd;
-    }
-
     private static int[] sortAsc(int x, int y, int z) {
         int[] arr = {x, y ,z};
         Arrays.sort(arr);
@@ -440,5 +763,12 @@ public final class Box implements Comparable<Box> {
         return result;
     }
 
-    enum Rotation { R0, R1, R2, R3, R4, R5,}
+    /**
+     * Which of the box dimensions goes along the container width, height and length, see
+     * {@link #width(Rotation)}, {@link #height(Rotation)} and {@link #length(Rotation)}.
+     */
+    public enum Rotation { R0, R1, R2, R3, R4, R5,}
+
+    // UNKNOWN is only ever the result of the time limit kicking in, or of the solver being skipped
+    public enum Verdict { FITS, DOES_NOT_FIT, UNKNOWN }
 }
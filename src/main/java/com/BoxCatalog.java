@@ -0,0 +1,75 @@
+package com;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.Box.Verdict.*;
+
+/**
+ * Immutable set of candidate containers that answers "which is the smallest one these items fit in".
+ * <p>
+ * The containers are kept in {@link Box#compareTo(Box) natural order}, so volume first. A query computes
+ * the item aggregates once and asks a {@link ContainerIndex} for the containers with the volume for the items
+ * that also take them one by one, then skips every one dominated by a container already proven too small.
+ * Only the survivors go through the full {@link Box#canTheseFitIn(List)} pipeline.
+ */
+public final class BoxCatalog {
+    private final ContainerIndex index;
+
+    public BoxCatalog(List<Box> containers) {
+        index = new ContainerIndex(containers);
+    }
+
+    public List<Box> containers() {
+        return index.containers();
+    }
+
+    public ContainerIndex index() {
+        return index;
+    }
+
+    public Optional<Box> smallestThatFits(List<Box> boxes) {
+        return smallestThatFits(boxes, FitOptions.defaults());
+    }
+
+    public Optional<Box> smallestThatFits(List<Box> boxes, int limitMs) {
+        return smallestThatFits(boxes, FitOptions.defaults().withTimeLimit(limitMs));
+    }
+
+    /**
+     * A container whose solver run hits the time limit is skipped, a bigger one may still be returned.
+     */
+    public Optional<Box> smallestThatFits(List<Box> boxes, FitOptions options) {
+        var stats = ItemStats.of(boxes);
+        List<Box> tooSmall = new ArrayList<>();
+
+        for (var container : index.candidates(stats)) {
+            if (isDominated(container, tooSmall)) {
+                continue;
+            }
+
+            var verdict = container.verdict(boxes, stats, options);
+
+            if (verdict == FITS) {
+                return Optional.of(container);
+            }
+
+            if (verdict == DOES_NOT_FIT) {
+                tooSmall.add(container);
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private static boolean isDominated(Box container, List<Box> tooSmall) {
+        for (var small : tooSmall) {
+            if (small.dominates(container)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
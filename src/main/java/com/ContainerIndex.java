@@ -0,0 +1,204 @@
+package com;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable index over a set of containers that answers "which containers can take items this big": every
+ * container whose sorted dimensions dominate the given (min, med, max) and whose volume is at least the given one.
+ * <p>
+ * A k-d tree over the sorted dimensions, every node also keeps the per dimension maxima and the maximum volume
+ * below it, so whole subtrees of too small containers are skipped without looking at them. The candidates come
+ * back in {@link Box#compareTo(Box) natural order}, so volume first. Safe to share across threads.
+ */
+public final class ContainerIndex {
+    // Ranges this short are scanned rather than split further
+    private static final int LEAF = 8;
+
+    // Natural order, a container is known by its rank in here
+    private final Box[] containers;
+
+    // Tree order: the range [lo, hi) of a node is split on depth % 3 at its middle, leaves are scanned
+    private final int[] ranks;
+    private final int[] mins;
+    private final int[] meds;
+    private final int[] maxs;
+    private final long[] volumes;
+
+    // Per range, kept at its middle: maxima over the containers in it
+    private final int[] maxMin;
+    private final int[] maxMed;
+    private final int[] maxMax;
+    private final long[] maxVolume;
+
+    public ContainerIndex(List<Box> containers) {
+        this.containers = containers.toArray(new Box[0]);
+        Arrays.sort(this.containers);
+
+        int n = this.containers.length;
+        ranks = new int[n];
+
+        for (int i = 0; i < n; i++) {
+            ranks[i] = i;
+        }
+
+        build(0, n, 0, new long[n]);
+
+        mins = new int[n];
+        meds = new int[n];
+        maxs = new int[n];
+        volumes = new long[n];
+
+        for (int i = 0; i < n; i++) {
+            Box box = this.containers[ranks[i]];
+            mins[i] = box.min();
+            meds[i] = box.med();
+            maxs[i] = box.max();
+            volumes[i] = box.volume();
+        }
+
+        maxMin = new int[n];
+        maxMed = new int[n];
+        maxMax = new int[n];
+        maxVolume = new long[n];
+        bound(0, n);
+    }
+
+    public List<Box> containers() {
+        return List.of(containers);
+    }
+
+    /**
+     * The containers that take every one of the items "1 in 1" and have the volume for all of them.
+     */
+    public List<Box> candidates(List<Box> items) {
+        return candidates(ItemStats.of(items));
+    }
+
+    /**
+     * The containers whose sorted dimensions dominate min &le; med &le; max, with at least the given volume.
+     */
+    public List<Box> candidates(int min, int med, int max, long volume) {
+        // Ranks found, read back in order
+        long[] found = new long[(containers.length + 63) >>> 6];
+        int count = collect(0, containers.length, min, med, max, volume, found);
+
+        Box[] result = new Box[count];
+        int i = 0;
+
+        for (int word = 0; word < found.length; word++) {
+            for (long bits = found[word]; bits != 0; bits &= bits - 1) {
+                result[i++] = containers[(word << 6) + Long.numberOfTrailingZeros(bits)];
+            }
+        }
+
+        return List.of(result);
+    }
+
+    List<Box> candidates(ItemStats stats) {
+        return candidates(stats.maxMin, stats.maxMed, stats.maxMax, stats.totalVolume);
+    }
+
+    // Keys pack the split dimension over the rank, so that sorting them orders the range on that dimension
+    private void build(int lo, int hi, int depth, long[] keys) {
+        if (hi - lo <= LEAF) {
+            return;
+        }
+
+        for (int i = lo; i < hi; i++) {
+            keys[i] = (long) dimension(containers[ranks[i]], depth % 3) << 32 | ranks[i];
+        }
+
+        Arrays.sort(keys, lo, hi);
+
+        for (int i = lo; i < hi; i++) {
+            ranks[i] = (int) keys[i];
+        }
+
+        int mid = (lo + hi) >>> 1;
+        build(lo, mid, depth + 1, keys);
+        build(mid + 1, hi, depth + 1, keys);
+    }
+
+    private void bound(int lo, int hi) {
+        if (lo >= hi) {
+            return;
+        }
+
+        int mid = (lo + hi) >>> 1;
+
+        if (hi - lo <= LEAF) {
+            for (int i = lo; i < hi; i++) {
+                include(mid, mins[i], meds[i], maxs[i], volumes[i]);
+            }
+
+            return;
+        }
+
+        bound(lo, mid);
+        bound(mid + 1, hi);
+
+        include(mid, mins[mid], meds[mid], maxs[mid], volumes[mid]);
+
+        if (lo < mid) {
+            int child = (lo + mid) >>> 1;
+            include(mid, maxMin[child], maxMed[child], maxMax[child], maxVolume[child]);
+        }
+
+        if (mid + 1 < hi) {
+            int child = (mid + 1 + hi) >>> 1;
+            include(mid, maxMin[child], maxMed[child], maxMax[child], maxVolume[child]);
+        }
+    }
+
+    private void include(int node, int min, int med, int max, long volume) {
+        maxMin[node] = Math.max(maxMin[node], min);
+        maxMed[node] = Math.max(maxMed[node], med);
+        maxMax[node] = Math.max(maxMax[node], max);
+        maxVolume[node] = Math.max(maxVolume[node], volume);
+    }
+
+    // Marks the ranks of the containers in [lo, hi) that qualify, returns how many
+    private int collect(int lo, int hi, int min, int med, int max, long volume, long[] found) {
+        if (lo >= hi) {
+            return 0;
+        }
+
+        int mid = (lo + hi) >>> 1;
+
+        if (maxMin[mid] < min || maxMed[mid] < med || maxMax[mid] < max || maxVolume[mid] < volume) {
+            return 0;
+        }
+
+        if (hi - lo <= LEAF) {
+            int count = 0;
+
+            for (int i = lo; i < hi; i++) {
+                count += mark(i, min, med, max, volume, found);
+            }
+
+            return count;
+        }
+
+        return mark(mid, min, med, max, volume, found)
+            + collect(lo, mid, min, med, max, volume, found)
+            + collect(mid + 1, hi, min, med, max, volume, found);
+    }
+
+    private int mark(int i, int min, int med, int max, long volume, long[] found) {
+        if (mins[i] < min || meds[i] < med || maxs[i] < max || volumes[i] < volume) {
+            return 0;
+        }
+
+        found[ranks[i] >>> 6] |= 1L << ranks[i];
+        return 1;
+    }
+
+    private static int dimension(Box box, int axis) {
+        return switch (axis) {
+            case 0 -> box.min();
+            case 1 -> box.med();
+            default -> box.max();
+        };
+    }
+}
@@ -0,0 +1,215 @@
+package com;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.Box.Verdict.*;
+
+/**
+ * Runs a batch of fit checks against one deadline for the whole batch rather than a time limit per check, to
+ * decide as many of them as it can in time.
+ * <p>
+ * Every check first goes through the pipeline short of the solver. The ones left undecided then only go through
+ * the solver, easiest first by predicted difficulty (more items and less free volume make it harder), each
+ * with a time limit that is its share of the time left, weighted by that same difficulty. Whatever a check does
+ * not use is shared among the ones after it. The checks that still run out of time go round again in the time
+ * left, with at least twice the limit they had, until the deadline.
+ * <p>
+ * The quick stages run whatever the deadline, it only bounds the solver runs, and a solver run stops a little
+ * after its limit, so a batch may end a few milliseconds late.
+ */
+public final class DeadlineScheduler {
+    // Shortest solver run worth starting
+    private static final int MIN_SLICE_MS = 5;
+
+    // A container fuller than this counts as this full when predicting the difficulty
+    private static final double MIN_SLACK = 0.05;
+
+    private final FitOptions options;
+    private final int threads;
+
+    public DeadlineScheduler(FitOptions options, int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be a positive number");
+        }
+
+        this.options = options;
+        this.threads = threads;
+    }
+
+    /**
+     * The results in the order of the queries, {@link Box.Verdict#UNKNOWN} for the ones not decided in time.
+     * The time limit of the options is replaced, the rest of them apply to every check.
+     */
+    public List<FitResult> fitAll(List<FitQuery> queries, long deadlineMs) {
+        if (deadlineMs <= 0) {
+            throw new IllegalArgumentException("deadlineMs must be a positive number");
+        }
+
+        long deadline = System.nanoTime() + deadlineMs * 1_000_000;
+        var results = new FitResult[queries.size()];
+        ExecutorService pool = threads > 1
+            ? Executors.newFixedThreadPool(threads, BatchRunner.threads("fit-deadline-"))
+            : null;
+
+        try {
+            var cheap = options.withoutSolver();
+            List<Pending> everything = new ArrayList<>(results.length);
+
+            for (int i = 0; i < results.length; i++) {
+                everything.add(new Pending(i, difficulty(queries.get(i))));
+            }
+
+            var all = new Round(everything, deadline);
+
+            run(pool, () -> {
+                for (var p = all.next(); p != null; p = all.next()) {
+                    var query = queries.get(p.index);
+                    results[p.index] = query.container().fit(query.items(), cheap);
+
+                    if (results[p.index].verdict() == UNKNOWN) {
+                        all.undecided(p);
+                    }
+                }
+            });
+
+            var pending = all.unknowns;
+
+            while (!pending.isEmpty() && remainingMs(deadline) >= MIN_SLICE_MS) {
+                pending.sort(Comparator.comparingDouble(p -> p.difficulty));
+                var round = new Round(pending, deadline);
+
+                run(pool, () -> {
+                    for (var p = round.nextWithSlice(); p != null; p = round.nextWithSlice()) {
+                        var query = queries.get(p.index);
+                        results[p.index] = query.container().solverFit(query.items(), options.withTimeLimit(p.sliceMs));
+
+                        if (results[p.index].verdict() == UNKNOWN) {
+                            round.undecided(p);
+                        }
+                    }
+                });
+
+                pending = round.unknowns;
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdownNow();
+            }
+        }
+
+        return Arrays.asList(results);
+    }
+
+    // Harder with more items and with less room left, damped so that the hardest ones, which often are not
+    // decided whatever the time, leave some for the others
+    static double difficulty(FitQuery query) {
+        long volume = 0;
+
+        for (var item : query.items()) {
+            volume += item.volume();
+        }
+
+        double slack = 1 - (double) volume / query.container().volume();
+        return Math.sqrt(query.items().size() / Math.max(slack, MIN_SLACK));
+    }
+
+    // On every thread of the pool, or right here without one
+    private void run(ExecutorService pool, Runnable worker) {
+        if (pool == null) {
+            worker.run();
+            return;
+        }
+
+        List<Future<?>> futures = new ArrayList<>(threads);
+
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(worker));
+        }
+
+        try {
+            for (var future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static long remainingMs(long deadline) {
+        return (deadline - System.nanoTime()) / 1_000_000;
+    }
+
+    private static final class Pending {
+        final int index;
+        final double difficulty;
+
+        // Time limit of the last solver run
+        int sliceMs;
+
+        Pending(int index, double difficulty) {
+            this.index = index;
+            this.difficulty = difficulty;
+        }
+    }
+
+    // One pass over the pending checks, shared by the workers
+    private final class Round {
+        final List<Pending> pending;
+        final List<Pending> unknowns = new ArrayList<>();
+        private final long deadline;
+
+        private int next;
+        private double weightLeft;
+
+        Round(List<Pending> pending, long deadline) {
+            this.pending = pending;
+            this.deadline = deadline;
+
+            for (var p : pending) {
+                weightLeft += p.difficulty;
+            }
+        }
+
+        synchronized Pending next() {
+            return next < pending.size() ? pending.get(next++) : null;
+        }
+
+        // Null once there is no time left for one more run, the rest stay unknown
+        synchronized Pending nextWithSlice() {
+            long remaining = remainingMs(deadline);
+
+            if (next == pending.size() || remaining < MIN_SLICE_MS) {
+                return null;
+            }
+
+            var p = pending.get(next++);
+
+            // Every thread runs its share of the time left
+            long share = (long) (remaining * threads * Math.min(1, p.difficulty / weightLeft));
+            weightLeft -= p.difficulty;
+
+            long slice = Math.max(MIN_SLICE_MS, Math.max(share, 2L * p.sliceMs));
+            p.sliceMs = (int) Math.min(Integer.MAX_VALUE, Math.min(remaining, slice));
+
+            return p;
+        }
+
+        synchronized void undecided(Pending p) {
+            unknowns.add(p);
+        }
+    }
+}
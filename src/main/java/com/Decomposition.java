@@ -0,0 +1,89 @@
+package com;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.Box.Verdict.*;
+
+/**
+ * Orders of a few large items and many small ones. The large items alone go through the exact
+ * {@link SmallPacker}, then the small ones into the space they leave with {@link ExtremePointPacker}, so that
+ * the small items never blow up an exact search. As the large items are part of the order, their not fitting
+ * is final too.
+ * <p>
+ * A fit of the large items is only one of their placements, the small ones may need another one, so a failure
+ * of the heuristic leaves the order to the model.
+ */
+final class Decomposition {
+    // Items taking at least 1/LARGE_SHARE of the container volume are large
+    private static final int LARGE_SHARE = 20;
+
+    private static final long BUDGET_NANOS = 2_000_000;
+
+    private Decomposition() {
+    }
+
+    /**
+     * FITS or DOES_NOT_FIT when decided, writing the placements into packing on a fit unless it is null, null
+     * when not. The search of the large items stops at its own budget or at the time limit of options, whichever
+     * comes first.
+     */
+    static FitResult fit(Box container, List<Box> boxes, FitOptions options, Packing packing) {
+        List<Box> large = new ArrayList<>();
+        List<Box> small = new ArrayList<>();
+        int[] positions = new int[boxes.size()];
+
+        for (int i = 0; i < boxes.size(); i++) {
+            Box box = boxes.get(i);
+            var part = LARGE_SHARE * box.volume() >= container.volume() ? large : small;
+
+            // Index in its part
+            positions[i] = part.size();
+            part.add(box);
+        }
+
+        // Not worth it past a few large items or without more small ones than large ones
+        if (large.isEmpty() || small.size() <= large.size() || large.size() > SmallPacker.MAX_ITEMS) {
+            return null;
+        }
+
+        int[] order = Box.order(large, Box.BOX_COMPARATOR.reversed());
+        List<Box> sorted = new ArrayList<>(large.size());
+
+        for (int i : order) {
+            sorted.add(large.get(i));
+        }
+
+        var placed = new Packing(container, large);
+        var result = new SmallPacker(container, sorted).solve(options, placed, order);
+
+        if (result == null || result.verdict() == UNKNOWN) {
+            return null;
+        }
+
+        if (result.verdict() == DOES_NOT_FIT) {
+            return FitResult.doesNotFit(FitResult.Stage.LARGE_ITEMS);
+        }
+
+        var packer = new ExtremePointPacker(container, small, placed);
+
+        if (!packer.pack(BUDGET_NANOS)) {
+            return null;
+        }
+
+        if (packing != null) {
+            var around = new Packing(container, small);
+            packer.copyTo(around);
+
+            for (int i = 0; i < boxes.size(); i++) {
+                boolean isLarge = LARGE_SHARE * boxes.get(i).volume() >= container.volume();
+                var part = isLarge ? placed : around;
+                int k = positions[i];
+
+                packing.place(i, part.x(k), part.y(k), part.z(k), part.rotation(k));
+            }
+        }
+
+        return FitResult.fits(FitResult.Stage.DECOMPOSITION);
+    }
+}
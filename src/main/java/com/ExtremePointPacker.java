@@ -0,0 +1,133 @@
+package com;
+
+import java.util.List;
+
+/**
+ * Extreme point heuristic (Crainic, Perboli, Tadei): the items go one by one into {@link ExtremePoints}, in a
+ * few different orders tried in turn within a time budget.
+ * <p>
+ * Only ever proves a fit, a failure means nothing. All the working state is in primitive arrays allocated
+ * once per instance.
+ */
+final class ExtremePointPacker {
+    // Item orders
+    private static final int VOLUME = 0;
+    private static final int MAX_DIMENSION = 1;
+    private static final int FOOTPRINT = 2;
+    private static final int MIN_DIMENSION = 3;
+    private static final int ORDERS = 4;
+
+    private final List<Box> boxes;
+    private final int n;
+
+    // order[p] is the item placed p-th
+    private final int[] order;
+    private final long[] keys;
+
+    private final ExtremePoints space;
+
+    // Placed before the others, in the space left they leave, null if none
+    private final Packing fixed;
+
+    ExtremePointPacker(Box container, List<Box> boxes) {
+        this(container, boxes, null);
+    }
+
+    /**
+     * Packs the boxes around the items of fixed, which stay where they are.
+     */
+    ExtremePointPacker(Box container, List<Box> boxes, Packing fixed) {
+        this.boxes = boxes;
+        this.fixed = fixed;
+        n = boxes.size();
+
+        order = new int[n];
+        keys = new long[n];
+
+        space = new ExtremePoints(container, n + (fixed == null ? 0 : fixed.size()));
+    }
+
+    /**
+     * Tries the item orders until one packs everything or the budget runs out.
+     */
+    boolean pack(long budgetNanos) {
+        long deadline = System.nanoTime() + budgetNanos;
+
+        for (int o = 0; o < ORDERS; o++) {
+            sort(o);
+
+            if (packInOrder(deadline)) {
+                return true;
+            }
+
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+        }
+
+        return false;
+    }
+
+    // Expects pack to have returned true
+    void copyTo(Packing packing) {
+        int first = fixed == null ? 0 : fixed.size();
+
+        for (int p = 0; p < n; p++) {
+            packing.place(order[p], space.x(first + p), space.y(first + p), space.z(first + p),
+                space.rotation(first + p));
+        }
+    }
+
+    private boolean packInOrder(long deadline) {
+        space.clear();
+
+        if (fixed != null) {
+            for (int i = 0; i < fixed.size(); i++) {
+                space.add(fixed.x(i), fixed.y(i), fixed.z(i), fixed.items().get(i), fixed.rotation(i));
+            }
+        }
+
+        for (int p = 0; p < n; p++) {
+            if (!space.place(boxes.get(order[p]))) {
+                return false;
+            }
+
+            // Checking the clock per item is plenty, an item costs points * rotations * placed
+            if ((p & 7) == 7 && System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // Biggest first by the given key, insertion sort on the index array as n is small
+    private void sort(int by) {
+        for (int i = 0; i < n; i++) {
+            Box box = boxes.get(i);
+
+            keys[i] = switch (by) {
+                case VOLUME -> box.volume();
+                case MAX_DIMENSION -> box.max();
+                case FOOTPRINT -> (long) box.max() * box.med();
+                case MIN_DIMENSION -> box.min();
+                default -> throw new IllegalStateException();
+            };
+
+            order[i] = i;
+        }
+
+        for (int i = 1; i < n; i++) {
+            int item = order[i];
+            long key = keys[item];
+            int j = i - 1;
+
+            while (j >= 0 && keys[order[j]] < key) {
+                order[j + 1] = order[j];
+                j--;
+            }
+
+            order[j + 1] = item;
+        }
+    }
+}
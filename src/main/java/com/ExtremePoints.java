@@ -0,0 +1,273 @@
+package com;
+
+import java.util.Arrays;
+
+import static com.Box.Rotation;
+
+/**
+ * The placed items and extreme points behind {@link ExtremePointPacker} and {@link PackingSession}. Items go
+ * at the lowest, then backmost, then leftmost extreme point where one of their distinct rotations fits.
+ * Placing an item adds the points right of, above and in front of it, each also projected back onto the
+ * nearest face below / behind / left of it, and drops the points it covers.
+ * <p>
+ * Primitive arrays only, grown by doubling when more items come in than expected.
+ */
+final class ExtremePoints {
+    private static final Rotation[] ROTATIONS = Rotation.values();
+
+    private final int width;
+    private final int height;
+    private final int length;
+
+    // Placed items, in placement order
+    private int[] px;
+    private int[] py;
+    private int[] pz;
+    private int[] pw;
+    private int[] ph;
+    private int[] pl;
+    private byte[] rotations;
+    private int placed;
+
+    private int[] ex;
+    private int[] ey;
+    private int[] ez;
+    private int points;
+
+    ExtremePoints(Box container, int expectedItems) {
+        width = container.width();
+        height = container.height();
+        length = container.length();
+
+        int capacity = Math.max(1, expectedItems);
+        px = new int[capacity];
+        py = new int[capacity];
+        pz = new int[capacity];
+        pw = new int[capacity];
+        ph = new int[capacity];
+        pl = new int[capacity];
+        rotations = new byte[capacity];
+
+        // Every placement adds at most 9 points
+        ex = new int[9 * capacity + 1];
+        ey = new int[9 * capacity + 1];
+        ez = new int[9 * capacity + 1];
+
+        clear();
+    }
+
+    void clear() {
+        placed = 0;
+        points = 1;
+        ex[0] = 0;
+        ey[0] = 0;
+        ez[0] = 0;
+    }
+
+    int placed() {
+        return placed;
+    }
+
+    int x(int k) {
+        return px[k];
+    }
+
+    int y(int k) {
+        return py[k];
+    }
+
+    int z(int k) {
+        return pz[k];
+    }
+
+    Rotation rotation(int k) {
+        return ROTATIONS[rotations[k]];
+    }
+
+    /**
+     * Places the box at the best extreme point, false and no change when there is none.
+     */
+    boolean place(Box box) {
+        int bestPoint = -1;
+        Rotation bestRotation = null;
+
+        for (int e = 0; e < points; e++) {
+            // Only lower / further back / further left points can improve on the best so far
+            if (bestPoint >= 0 && !before(e, bestPoint)) {
+                continue;
+            }
+
+            for (var r : box.getDistinctRotations()) {
+                if (fits(ex[e], ey[e], ez[e], box.width(r), box.height(r), box.length(r))) {
+                    bestPoint = e;
+                    bestRotation = r;
+                    break;
+                }
+            }
+        }
+
+        if (bestPoint < 0) {
+            return false;
+        }
+
+        add(ex[bestPoint], ey[bestPoint], ez[bestPoint], box, bestRotation);
+        return true;
+    }
+
+    /**
+     * Records a placement decided elsewhere, expects it not to overlap the others.
+     */
+    void add(int x, int y, int z, Box box, Rotation rotation) {
+        if (placed == px.length) {
+            grow();
+        }
+
+        int w = box.width(rotation);
+        int h = box.height(rotation);
+        int l = box.length(rotation);
+
+        px[placed] = x;
+        py[placed] = y;
+        pz[placed] = z;
+        pw[placed] = w;
+        ph[placed] = h;
+        pl[placed] = l;
+        rotations[placed] = (byte) rotation.ordinal();
+        placed++;
+
+        // Points the new item covers can never take another one
+        for (int e = points - 1; e >= 0; e--) {
+            if (contains(x, w, ex[e]) && contains(y, h, ey[e]) && contains(z, l, ez[e])) {
+                removePoint(e);
+            }
+        }
+
+        addPoint(x + w, y, z);
+        addPoint(x + w, projectY(x + w, y, z), z);
+        addPoint(x + w, y, projectZ(x + w, y, z));
+
+        addPoint(x, y + h, z);
+        addPoint(projectX(x, y + h, z), y + h, z);
+        addPoint(x, y + h, projectZ(x, y + h, z));
+
+        addPoint(x, y, z + l);
+        addPoint(projectX(x, y, z + l), y, z + l);
+        addPoint(x, projectY(x, y, z + l), z + l);
+    }
+
+    // Lowest z, then y, then x first
+    private boolean before(int a, int b) {
+        if (ez[a] != ez[b]) {
+            return ez[a] < ez[b];
+        }
+
+        if (ey[a] != ey[b]) {
+            return ey[a] < ey[b];
+        }
+
+        return ex[a] < ex[b];
+    }
+
+    private boolean fits(int x, int y, int z, int w, int h, int l) {
+        if (w > width - x || h > height - y || l > length - z) {
+            return false;
+        }
+
+        for (int k = 0; k < placed; k++) {
+            if (x < px[k] + pw[k] && px[k] < x + w &&
+                y < py[k] + ph[k] && py[k] < y + h &&
+                z < pz[k] + pl[k] && pz[k] < z + l) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // Slide the point towards x = 0 until it meets the face of a placed item
+    private int projectX(int x, int y, int z) {
+        int result = 0;
+
+        for (int k = 0; k < placed; k++) {
+            int face = px[k] + pw[k];
+
+            if (face <= x && face > result && contains(py[k], ph[k], y) && contains(pz[k], pl[k], z)) {
+                result = face;
+            }
+        }
+
+        return result;
+    }
+
+    private int projectY(int x, int y, int z) {
+        int result = 0;
+
+        for (int k = 0; k < placed; k++) {
+            int face = py[k] + ph[k];
+
+            if (face <= y && face > result && contains(px[k], pw[k], x) && contains(pz[k], pl[k], z)) {
+                result = face;
+            }
+        }
+
+        return result;
+    }
+
+    private int projectZ(int x, int y, int z) {
+        int result = 0;
+
+        for (int k = 0; k < placed; k++) {
+            int face = pz[k] + pl[k];
+
+            if (face <= z && face > result && contains(px[k], pw[k], x) && contains(py[k], ph[k], y)) {
+                result = face;
+            }
+        }
+
+        return result;
+    }
+
+    private static boolean contains(int start, int size, int value) {
+        return start <= value && value < start + size;
+    }
+
+    private void addPoint(int x, int y, int z) {
+        if (x >= width || y >= height || z >= length) {
+            return;
+        }
+
+        for (int e = 0; e < points; e++) {
+            if (ex[e] == x && ey[e] == y && ez[e] == z) {
+                return;
+            }
+        }
+
+        ex[points] = x;
+        ey[points] = y;
+        ez[points] = z;
+        points++;
+    }
+
+    private void removePoint(int e) {
+        points--;
+        ex[e] = ex[points];
+        ey[e] = ey[points];
+        ez[e] = ez[points];
+    }
+
+    private void grow() {
+        int capacity = 2 * px.length;
+
+        px = Arrays.copyOf(px, capacity);
+        py = Arrays.copyOf(py, capacity);
+        pz = Arrays.copyOf(pz, capacity);
+        pw = Arrays.copyOf(pw, capacity);
+        ph = Arrays.copyOf(ph, capacity);
+        pl = Arrays.copyOf(pl, capacity);
+        rotations = Arrays.copyOf(rotations, capacity);
+
+        ex = Arrays.copyOf(ex, 9 * capacity + 1);
+        ey = Arrays.copyOf(ey, 9 * capacity + 1);
+        ez = Arrays.copyOf(ez, 9 * capacity + 1);
+    }
+}
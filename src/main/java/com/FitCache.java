@@ -0,0 +1,170 @@
+package com;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.Box.Verdict.*;
+
+/**
+ * Thread safe memoizing layer in front of {@link Box#canTheseFitIn(List)}.
+ * <p>
+ * Entries are keyed on the container and the item multiset, so the order and the orientation of the items
+ * do not matter. The least recently used entries are evicted once there are more than {@code maxEntries}
+ * of them or their total weight (the number of items they hold) goes over {@code maxWeight}.
+ * Answers cut short by the time limit, or stopped short of the solver, are never cached.
+ */
+public final class FitCache {
+    private final int maxEntries;
+    private final long maxWeight;
+
+    // Access ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<FitKey, Boolean> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public FitCache(int maxEntries, long maxWeight) {
+        if (maxEntries <= 0 || maxWeight <= 0) {
+            throw new IllegalArgumentException("maxEntries and maxWeight must be positive numbers");
+        }
+
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+    }
+
+    public boolean canTheseFitIn(Box container, List<Box> boxes) {
+        var key = FitKey.of(container, boxes);
+        Boolean cached = get(key);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        return put(key, container.verdict(boxes));
+    }
+
+    public boolean canTheseFitIn(Box container, List<Box> boxes, int limitMs) {
+        var key = FitKey.of(container, boxes);
+        Boolean cached = get(key);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        return put(key, container.verdict(boxes, limitMs));
+    }
+
+    /**
+     * The options only change how long an answer takes, so answers are shared across all of them.
+     */
+    public boolean canTheseFitIn(Box container, List<Box> boxes, FitOptions options) {
+        var key = FitKey.of(container, boxes);
+        Boolean cached = get(key);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        return put(key, container.verdict(boxes, options));
+    }
+
+    /**
+     * Same answer as {@link #canTheseFitIn(Box, List, FitOptions)}, along with where each item goes. Only the
+     * answers are kept, so a known misfit comes straight from the cache but a known fit is packed again.
+     */
+    public Optional<Packing> packInto(Box container, List<Box> boxes, FitOptions options) {
+        var key = FitKey.of(container, boxes);
+
+        if (Boolean.FALSE.equals(get(key))) {
+            return Optional.empty();
+        }
+
+        var packing = new Packing(container, boxes);
+        var verdict = container.fit(boxes, ItemStats.of(boxes), options, packing, null).verdict();
+
+        return put(key, verdict) ? Optional.of(packing) : Optional.empty();
+    }
+
+    private Boolean get(FitKey key) {
+        Boolean cached = null;
+
+        if (key != null) {
+            synchronized (entries) {
+                cached = entries.get(key);
+            }
+        }
+
+        if (cached != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+
+        return cached;
+    }
+
+    private boolean put(FitKey key, Box.Verdict verdict) {
+        boolean fits = verdict == FITS;
+
+        if (key == null || verdict == UNKNOWN) {
+            return fits;
+        }
+
+        synchronized (entries) {
+            if (entries.put(key, fits) == null) {
+                weight += weightOf(key);
+            }
+
+            Iterator<Map.Entry<FitKey, Boolean>> eldest = entries.entrySet().iterator();
+
+            while (entries.size() > maxEntries || (weight > maxWeight && entries.size() > 1)) {
+                weight -= weightOf(eldest.next().getKey());
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+
+        return fits;
+    }
+
+    private static long weightOf(FitKey key) {
+        return Math.max(1, key.size());
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long weight() {
+        synchronized (entries) {
+            return weight;
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            weight = 0;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Container plus the item multiset, independent of item order and orientation
+final class FitKey {
+    private final Box container;
+    private final long[] items;
+    private final int hash;
+
+    private FitKey(Box container, long[] items) {
+        this.container = container;
+        this.items = items;
+        this.hash = 31 * container.hashCode() + Arrays.hashCode(items);
+    }
+
+    /**
+     * Returns null when one of the items is too big to be packed in a long.
+     */
+    static FitKey of(Box container, List<Box> boxes) {
+        long[] items = new long[boxes.size()];
+
+        for (int i = 0; i < items.length; i++) {
+            long packed = boxes.get(i).packed();
+
+            if (packed < 0) {
+                return null;
+            }
+
+            items[i] = packed;
+        }
+
+        Arrays.sort(items);
+        return new FitKey(container, items);
+    }
+
+    Box container() {
+        return container;
+    }
+
+    int size() {
+        return items.length;
+    }
+
+    // Every item of the other key is in this one, at least as many times, whatever the containers
+    boolean containsAll(FitKey other) {
+        if (other.items.length > items.length) {
+            return false;
+        }
+
+        int i = 0;
+
+        for (long item : other.items) {
+            // Both sorted, skip the items of this key that come before
+            while (i < items.length && items[i] < item) {
+                i++;
+            }
+
+            if (i == items.length || items[i] != item) {
+                return false;
+            }
+
+            i++;
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        FitKey key = (FitKey) o;
+        return hash == key.hash && container.equals(key.container) && Arrays.equals(items, key.items);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
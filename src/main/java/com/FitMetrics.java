@@ -0,0 +1,156 @@
+package com;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.Box.Verdict;
+import static com.FitResult.Stage;
+
+/**
+ * Process wide counters and latency histograms of the fit pipeline, see {@link Box#fit(java.util.List, FitOptions)}.
+ * Off by default, when off a query only pays for reading a flag. When on, recording is a handful of striped
+ * {@link LongAdder} increments, cheap enough to leave on under full load.
+ * <p>
+ * Histograms count by power of two: bucket i holds the values in [2^i, 2^(i + 1)). Latencies are in
+ * nanoseconds and cover the whole query, by the stage that decided it, apart from the solver latency histogram,
+ * which only covers the search itself of the queries the solver ran for. The solver histograms leave out the
+ * small search, which has verdict counts of its own. Solver runs and small searches are also reported as
+ * {@code com.boxy.Solver} and {@code com.boxy.SmallSearch} JFR events, whether this is on or not.
+ */
+public final class FitMetrics {
+    private static final Stage[] STAGES = Stage.values();
+    private static final Verdict[] VERDICTS = Verdict.values();
+
+    private static volatile boolean enabled;
+
+    // The stage counts are the histogram totals, all but the two search stages always reach the same verdict
+    private static final Log2Histogram[] STAGE_LATENCIES = histograms(STAGES.length);
+    private static final LongAdder[] SMALL_SEARCH_VERDICTS = adders(VERDICTS.length);
+    private static final LongAdder[] SOLVER_VERDICTS = adders(VERDICTS.length);
+
+    private static final Log2Histogram SOLVER_LATENCIES = new Log2Histogram();
+    private static final Log2Histogram SOLVER_NODES = new Log2Histogram();
+    private static final Log2Histogram SOLVER_FAILS = new Log2Histogram();
+    private static final Log2Histogram SOLVER_BACKTRACKS = new Log2Histogram();
+
+    private FitMetrics() {
+    }
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static void disable() {
+        enabled = false;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void reset() {
+        for (var adder : SMALL_SEARCH_VERDICTS) {
+            adder.reset();
+        }
+
+        for (var adder : SOLVER_VERDICTS) {
+            adder.reset();
+        }
+
+        for (var histogram : STAGE_LATENCIES) {
+            histogram.reset();
+        }
+
+        SOLVER_LATENCIES.reset();
+        SOLVER_NODES.reset();
+        SOLVER_FAILS.reset();
+        SOLVER_BACKTRACKS.reset();
+    }
+
+    public static long count(Stage stage) {
+        return STAGE_LATENCIES[stage.ordinal()].total();
+    }
+
+    public static long count(Verdict verdict) {
+        long count = SMALL_SEARCH_VERDICTS[verdict.ordinal()].sum() + SOLVER_VERDICTS[verdict.ordinal()].sum();
+
+        for (var stage : STAGES) {
+            if (stage != Stage.SMALL_SEARCH && stage != Stage.SOLVER && verdictOf(stage) == verdict) {
+                count += count(stage);
+            }
+        }
+
+        return count;
+    }
+
+    public static long[] latencyHistogram(Stage stage) {
+        return STAGE_LATENCIES[stage.ordinal()].snapshot();
+    }
+
+    // Time spent searching, without the stages before it
+    public static long[] solverLatencyHistogram() {
+        return SOLVER_LATENCIES.snapshot();
+    }
+
+    public static long[] solverNodesHistogram() {
+        return SOLVER_NODES.snapshot();
+    }
+
+    public static long[] solverFailsHistogram() {
+        return SOLVER_FAILS.snapshot();
+    }
+
+    public static long[] solverBacktracksHistogram() {
+        return SOLVER_BACKTRACKS.snapshot();
+    }
+
+    // Checks stopped short of the solver are left out, the solver run that decides them is recorded on its own
+    static void record(FitResult result, long latencyNanos) {
+        if (result.stage() == Stage.SOLVER_SKIPPED) {
+            return;
+        }
+
+        STAGE_LATENCIES[result.stage().ordinal()].record(latencyNanos);
+
+        if (result.stage() == Stage.SMALL_SEARCH) {
+            SMALL_SEARCH_VERDICTS[result.verdict().ordinal()].increment();
+        }
+
+        if (result.stage() == Stage.SOLVER) {
+            SOLVER_VERDICTS[result.verdict().ordinal()].increment();
+            SOLVER_LATENCIES.record(result.solverTimeNanos());
+            SOLVER_NODES.record(result.solverNodes());
+            SOLVER_FAILS.record(result.solverFails());
+            SOLVER_BACKTRACKS.record(result.solverBacktracks());
+        }
+    }
+
+    private static Verdict verdictOf(Stage stage) {
+        return switch (stage) {
+            case MIN_STACK, CUBE_SLICE, MULTISTACK, BLOCK, EXTREME_POINT, DECOMPOSITION -> Verdict.FITS;
+            case DOMINANCE, VOLUME, LOWER_BOUND_L1, LOWER_BOUND_L2, LOWER_BOUND_DFF, LARGE_ITEMS ->
+                Verdict.DOES_NOT_FIT;
+            case SOLVER_SKIPPED -> Verdict.UNKNOWN;
+            case SMALL_SEARCH, SOLVER -> throw new IllegalArgumentException("The searches reach any verdict");
+        };
+    }
+
+    private static LongAdder[] adders(int count) {
+        var adders = new LongAdder[count];
+
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+
+        return adders;
+    }
+
+    private static Log2Histogram[] histograms(int count) {
+        var histograms = new Log2Histogram[count];
+
+        for (int i = 0; i < count; i++) {
+            histograms[i] = new Log2Histogram();
+        }
+
+        return histograms;
+    }
+}
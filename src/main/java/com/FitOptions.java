@@ -0,0 +1,162 @@
+package com;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Immutable knobs for {@link Box#canTheseFitIn(java.util.List, FitOptions)}, every {@code with*} method returns
+ * a copy.
+ */
+public final class FitOptions {
+    static final int DISABLE_TIME_LIMIT = -1;
+
+    private static final FitOptions DEFAULTS = new FitOptions(DISABLE_TIME_LIMIT, 1, Formulation.PAIRWISE, 1,
+        Collections.unmodifiableSet(EnumSet.allOf(Symmetry.class)), false);
+
+    private final int limitMs;
+    private final int portfolioThreads;
+    private final Formulation formulation;
+    private final int coarseResolution;
+    private final Set<Symmetry> symmetryBreaking;
+
+    // Everything short of the solver, see FitResult.Stage.SOLVER_SKIPPED
+    private final boolean skipsSolver;
+
+    private FitOptions(int limitMs, int portfolioThreads, Formulation formulation, int coarseResolution,
+                       Set<Symmetry> symmetryBreaking, boolean skipsSolver) {
+        this.limitMs = limitMs;
+        this.portfolioThreads = portfolioThreads;
+        this.formulation = formulation;
+        this.coarseResolution = coarseResolution;
+        this.symmetryBreaking = symmetryBreaking;
+        this.skipsSolver = skipsSolver;
+    }
+
+    public static FitOptions defaults() {
+        return DEFAULTS;
+    }
+
+    public FitOptions withTimeLimit(int limitMs) {
+        if (limitMs <= 0) {
+            throw new IllegalArgumentException("limitMs must be a positive number");
+        }
+
+        return new FitOptions(limitMs, portfolioThreads, formulation, coarseResolution, symmetryBreaking, skipsSolver);
+    }
+
+    public FitOptions withoutTimeLimit() {
+        return new FitOptions(DISABLE_TIME_LIMIT, portfolioThreads, formulation, coarseResolution, symmetryBreaking,
+            skipsSolver);
+    }
+
+    // The checks left to the solver come back as FitResult.Stage.SOLVER_SKIPPED instead, the time limit is kept
+    FitOptions withoutSolver() {
+        return new FitOptions(limitMs, portfolioThreads, formulation, coarseResolution, symmetryBreaking, true);
+    }
+
+    /**
+     * Runs the solver as a portfolio of {@code threads} differently configured searches, the first one to
+     * reach a definitive answer wins and stops the others. One thread means a single default search. A portfolio
+     * always builds the model, even for the few items otherwise searched for directly.
+     */
+    public FitOptions withPortfolio(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be a positive number");
+        }
+
+        return new FitOptions(limitMs, threads, formulation, coarseResolution, symmetryBreaking, skipsSolver);
+    }
+
+    /**
+     * Any other formulation than the default one always builds the model, even for the few items otherwise searched
+     * for directly.
+     */
+    public FitOptions withFormulation(Formulation formulation) {
+        return new FitOptions(limitMs, portfolioThreads, formulation, coarseResolution, symmetryBreaking, skipsSolver);
+    }
+
+    /**
+     * First tries the instance on a grid of {@code resolution} units, the items rounded up to it and the
+     * container rounded down. Items that fit there fit for real, so a fit on the much smaller instance is final
+     * and only the rest go through the exact checks. The grid only gets the checks short of the solver, the
+     * solver only runs on the exact instance, with the whole time limit. A resolution of 1 turns it off.
+     */
+    public FitOptions withCoarseGrid(int resolution) {
+        if (resolution <= 0) {
+            throw new IllegalArgumentException("resolution must be a positive number");
+        }
+
+        return new FitOptions(limitMs, portfolioThreads, formulation, resolution, symmetryBreaking, skipsSolver);
+    }
+
+    /**
+     * Only the given rules cut the solver down to one of the equivalent packings, all of them by default.
+     */
+    public FitOptions withSymmetryBreaking(Symmetry... rules) {
+        var set = EnumSet.noneOf(Symmetry.class);
+        Collections.addAll(set, rules);
+
+        return new FitOptions(limitMs, portfolioThreads, formulation, coarseResolution,
+            Collections.unmodifiableSet(set), skipsSolver);
+    }
+
+    public boolean hasTimeLimit() {
+        return limitMs != DISABLE_TIME_LIMIT;
+    }
+
+    boolean skipsSolver() {
+        return skipsSolver;
+    }
+
+    public int limitMs() {
+        return limitMs;
+    }
+
+    public int portfolioThreads() {
+        return portfolioThreads;
+    }
+
+    public Formulation formulation() {
+        return formulation;
+    }
+
+    public int coarseResolution() {
+        return coarseResolution;
+    }
+
+    public Set<Symmetry> symmetryBreaking() {
+        return symmetryBreaking;
+    }
+
+    @Override
+    public String toString() {
+        return "FitOptions(limitMs=" + limitMs + ", portfolioThreads=" + portfolioThreads +
+            ", formulation=" + formulation + ", coarseResolution=" + coarseResolution +
+            ", symmetryBreaking=" + symmetryBreaking + (skipsSolver ? ", withoutSolver" : "") + ')';
+    }
+
+    // How the solver keeps the items from overlapping
+    public enum Formulation {
+        // Three reified precedences and a clause per pair of items, O(n^2) constraints
+        PAIRWISE,
+
+        // A single global 3D non-overlap constraint over all the items
+        NON_OVERLAP_3D,
+    }
+
+    // Symmetric packings the solver would otherwise go through one by one
+    public enum Symmetry {
+        // Identical items in increasing position order
+        IDENTICAL_ITEMS,
+
+        // Only the distinct rotations of items with equal sides, instead of all six
+        ROTATIONS,
+
+        // One item with no identical twin centered in the back, lower left half of the container along each axis
+        MIRROR,
+
+        // That same item orders the container axes of equal size, by its position then its size along them
+        AXES,
+    }
+}
@@ -0,0 +1,29 @@
+package com;
+
+import java.util.List;
+
+/**
+ * A container and the items to check against it, see {@link DeadlineScheduler}.
+ */
+public final class FitQuery {
+    private final Box container;
+    private final List<Box> items;
+
+    public FitQuery(Box container, List<Box> items) {
+        this.container = container;
+        this.items = List.copyOf(items);
+    }
+
+    public Box container() {
+        return container;
+    }
+
+    public List<Box> items() {
+        return items;
+    }
+
+    @Override
+    public String toString() {
+        return "FitQuery(" + container + ", " + items + ')';
+    }
+}
@@ -0,0 +1,157 @@
+package com;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static com.Box.Verdict;
+
+/**
+ * Outcome of {@link Box#fit(java.util.List, FitOptions)}: the verdict, the stage of the pipeline that reached it
+ * and, when a search ran, its statistics.
+ * <p>
+ * {@link Verdict#UNKNOWN} only ever comes from a search running out of time, so a batch can be run with a
+ * tight limit first and only the unknowns run again with a bigger one. The one exception is
+ * {@link Stage#SOLVER_SKIPPED}, for the checks told to stop short of the solver, which never ran.
+ */
+public final class FitResult {
+    // Results of the quick stages carry no statistics, they are shared
+    private static final Map<Stage, FitResult> FITS_AT = new EnumMap<>(Stage.class);
+    private static final Map<Stage, FitResult> DOES_NOT_FIT_AT = new EnumMap<>(Stage.class);
+
+    static {
+        for (var stage : Stage.values()) {
+            FITS_AT.put(stage, new FitResult(Verdict.FITS, stage, 1, 0, 0, 0, 0));
+            DOES_NOT_FIT_AT.put(stage, new FitResult(Verdict.DOES_NOT_FIT, stage, 1, 0, 0, 0, 0));
+        }
+    }
+
+    private static final FitResult SOLVER_SKIPPED = new FitResult(Verdict.UNKNOWN, Stage.SOLVER_SKIPPED, 1, 0, 0, 0, 0);
+
+    private final Verdict verdict;
+    private final Stage stage;
+    private final int scale;
+
+    private final long solverNodes;
+    private final long solverFails;
+    private final long solverBacktracks;
+    private final long solverTimeNanos;
+
+    private FitResult(Verdict verdict, Stage stage, int scale, long solverNodes, long solverFails,
+                      long solverBacktracks, long solverTimeNanos) {
+        this.verdict = verdict;
+        this.stage = stage;
+        this.scale = scale;
+        this.solverNodes = solverNodes;
+        this.solverFails = solverFails;
+        this.solverBacktracks = solverBacktracks;
+        this.solverTimeNanos = solverTimeNanos;
+    }
+
+    static FitResult fits(Stage stage) {
+        return FITS_AT.get(stage);
+    }
+
+    static FitResult doesNotFit(Stage stage) {
+        return DOES_NOT_FIT_AT.get(stage);
+    }
+
+    static FitResult solverSkipped() {
+        return SOLVER_SKIPPED;
+    }
+
+    static FitResult solved(Verdict verdict, long nodes, long fails, long backtracks, long timeNanos) {
+        return new FitResult(verdict, Stage.SOLVER, 1, nodes, fails, backtracks, timeNanos);
+    }
+
+    static FitResult searched(Verdict verdict, long nodes, long fails, long backtracks, long timeNanos) {
+        return new FitResult(verdict, Stage.SMALL_SEARCH, 1, nodes, fails, backtracks, timeNanos);
+    }
+
+    // Reached on the instance scaled down by factor
+    FitResult scaledBy(int factor) {
+        return new FitResult(verdict, stage, factor, solverNodes, solverFails, solverBacktracks, solverTimeNanos);
+    }
+
+    public Verdict verdict() {
+        return verdict;
+    }
+
+    public boolean fits() {
+        return verdict == Verdict.FITS;
+    }
+
+    public Stage stage() {
+        return stage;
+    }
+
+    /**
+     * The factor the container and items were scaled down by before the deciding stage, 1 when they were not.
+     * Includes the resolution of a coarse grid fit, see {@link FitOptions#withCoarseGrid(int)}.
+     */
+    public int scale() {
+        return scale;
+    }
+
+    // All 0 unless the stage is SMALL_SEARCH or SOLVER, summed over the searches of a portfolio. The small search
+    // counts the positions taken, the items left with none and the positions given up
+    public long solverNodes() {
+        return solverNodes;
+    }
+
+    public long solverFails() {
+        return solverFails;
+    }
+
+    public long solverBacktracks() {
+        return solverBacktracks;
+    }
+
+    public long solverTimeNanos() {
+        return solverTimeNanos;
+    }
+
+    @Override
+    public String toString() {
+        var sb = new StringBuilder("FitResult(").append(verdict).append(", ").append(stage);
+
+        if (scale > 1) {
+            sb.append(", scale=").append(scale);
+        }
+
+        if (stage == Stage.SMALL_SEARCH || stage == Stage.SOLVER) {
+            sb.append(", nodes=").append(solverNodes)
+              .append(", fails=").append(solverFails)
+              .append(", backtracks=").append(solverBacktracks)
+              .append(", timeMs=").append(solverTimeNanos / 1_000_000);
+        }
+
+        return sb.append(')').toString();
+    }
+
+    /**
+     * The stages of the pipeline, in the order they run.
+     */
+    public enum Stage {
+        // The items do not fit one by one
+        DOMINANCE,
+        MIN_STACK,
+        VOLUME,
+        CUBE_SLICE,
+        MULTISTACK,
+        LOWER_BOUND_L1,
+        LOWER_BOUND_L2,
+        LOWER_BOUND_DFF,
+        // Identical items in guillotine blocks
+        BLOCK,
+        EXTREME_POINT,
+        // The large items alone do not fit
+        LARGE_ITEMS,
+        // The large items placed exactly, the small ones around them
+        DECOMPOSITION,
+        // Left to the solver, which was not run, always UNKNOWN
+        SOLVER_SKIPPED,
+        // A few items searched for directly, see SmallPacker
+        SMALL_SEARCH,
+        SOLVER,
+    }
+}
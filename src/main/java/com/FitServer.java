@@ -0,0 +1,241 @@
+package com;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * Fit checks over HTTP, on the JDK built in server.
+ * <ul>
+ *     <li>{@code POST /fit} takes one record in the JSONL form of {@link BatchRunner}, {@code "id"} optional, and
+ *     answers {@code {"id", "verdict", "stage"}}, or 400 when the record is bad.</li>
+ *     <li>{@code GET /stats} answers the counters of the server.</li>
+ * </ul>
+ * Every check short of the solver runs right on the handler threads. Requests they leave undecided are solver
+ * work, which is admitted only while fewer than {@code solverThreads + maxPending} computations are under way
+ * and answered 503 otherwise, so a burst of hard instances can't take the handlers from the cheap ones. No
+ * handler waits on the solver either: the answer is sent by whoever completes the computation. Concurrent
+ * requests for the same container and item multiset (in any order and orientation) share a single computation.
+ */
+public final class FitServer implements AutoCloseable {
+    // Fails the computations that were not admitted
+    private static final IllegalStateException BUSY = new IllegalStateException("Busy");
+
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final ExecutorService solvers;
+    private final FitOptions options;
+    private final BiFunction<Box, List<Box>, FitResult> solve;
+
+    private final ThreadLocal<BatchFitter> fitters = ThreadLocal.withInitial(BatchFitter::new);
+    private final ConcurrentHashMap<FitKey, CompletableFuture<FitResult>> inFlight = new ConcurrentHashMap<>();
+    private final Semaphore admission;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder quick = new LongAdder();
+    private final LongAdder solved = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Binds the address, port 0 picks a free one. Call {@link #start()} to serve.
+     */
+    public FitServer(InetSocketAddress address, FitOptions options, int solverThreads, int maxPending)
+        throws IOException {
+        this(address, options, solverThreads, maxPending, (container, items) -> container.solverFit(items, options));
+    }
+
+    // solve only gets the instances the checks short of the solver left undecided
+    FitServer(InetSocketAddress address, FitOptions options, int solverThreads, int maxPending,
+              BiFunction<Box, List<Box>, FitResult> solve) throws IOException {
+        if (solverThreads <= 0 || maxPending < 0) {
+            throw new IllegalArgumentException("solverThreads must be positive and maxPending cannot be negative");
+        }
+
+        this.options = options;
+        this.solve = solve;
+
+        admission = new Semaphore(solverThreads + maxPending);
+        handlers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+            BatchRunner.threads("fit-http-"));
+        solvers = Executors.newFixedThreadPool(solverThreads, BatchRunner.threads("fit-solver-"));
+
+        server = HttpServer.create(address, 0);
+        server.setExecutor(handlers);
+        server.createContext("/fit", this::fit);
+        server.createContext("/stats", this::stats);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * With the actual port once bound to port 0.
+     */
+    public InetSocketAddress address() {
+        return server.getAddress();
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    // Answered without the solver
+    public long quick() {
+        return quick.sum();
+    }
+
+    // Solver computations, each one may have answered several requests
+    public long solved() {
+        return solved.sum();
+    }
+
+    // Requests that joined a computation already under way
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    // Turned away with a 503
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        handlers.shutdownNow();
+        solvers.shutdownNow();
+    }
+
+    private void fit(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            send(exchange, 405, error("", "Use POST"));
+            return;
+        }
+
+        requests.increment();
+        OrderRecord record;
+        FitResult result;
+
+        try {
+            record = OrderRecord.parseJson(read(exchange.getRequestBody()));
+            result = fitters.get().quickFit(record.width, record.height, record.length,
+                record.dimensions, 0, record.count());
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, error("", e.getMessage()));
+            return;
+        }
+
+        var container = new Box(record.width, record.height, record.length);
+        var items = record.items();
+
+        // The bounds and heuristics cost next to nothing too, only the solver is worth holding back
+        if (result == null) {
+            result = container.fit(items, options.withoutSolver());
+        }
+
+        if (result.stage() != FitResult.Stage.SOLVER_SKIPPED) {
+            quick.increment();
+            send(exchange, 200, BatchRunner.Format.JSONL.answer(record.id, result));
+            return;
+        }
+
+        computation(container, items).whenComplete((answer, failure) -> {
+            try {
+                if (failure == null) {
+                    send(exchange, 200, BatchRunner.Format.JSONL.answer(record.id, answer));
+                } else if (failure == BUSY) {
+                    rejected.increment();
+                    exchange.getResponseHeaders().set("Retry-After", "1");
+                    send(exchange, 503, error(record.id, "Busy"));
+                } else {
+                    send(exchange, 500, error(record.id, String.valueOf(failure)));
+                }
+            } catch (IOException e) {
+                exchange.close();
+            }
+        });
+    }
+
+    // The computation under way for the same instance, or a new one if admitted, failed with BUSY if not
+    private CompletableFuture<FitResult> computation(Box container, List<Box> items) {
+        var key = FitKey.of(container, items);
+        var created = new CompletableFuture<FitResult>();
+
+        if (key != null) {
+            var existing = inFlight.putIfAbsent(key, created);
+
+            if (existing != null) {
+                coalesced.increment();
+                return existing;
+            }
+        }
+
+        if (!admission.tryAcquire()) {
+            if (key != null) {
+                inFlight.remove(key, created);
+            }
+
+            // Whoever joined in the meantime gets turned away too
+            created.completeExceptionally(BUSY);
+            return created;
+        }
+
+        solvers.execute(() -> {
+            try {
+                var result = solve.apply(container, items);
+                solved.increment();
+                created.complete(result);
+            } catch (RuntimeException e) {
+                created.completeExceptionally(e);
+            } finally {
+                if (key != null) {
+                    inFlight.remove(key, created);
+                }
+
+                admission.release();
+            }
+        });
+
+        return created;
+    }
+
+    private void stats(HttpExchange exchange) throws IOException {
+        send(exchange, 200, "{\"requests\":" + requests() + ",\"quick\":" + quick() + ",\"solved\":" + solved()
+            + ",\"coalesced\":" + coalesced() + ",\"rejected\":" + rejected() + '}');
+    }
+
+    private static String read(InputStream body) throws IOException {
+        try (body) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String error(String id, String message) {
+        return "{\"id\":" + BatchRunner.Format.quote(id) + ",\"error\":" + BatchRunner.Format.quote(message) + '}';
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+
+        try (var out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
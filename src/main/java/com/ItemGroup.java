@@ -0,0 +1,41 @@
+package com;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A quantity of the same item, see {@link Box#fitGroups(List, FitOptions)}.
+ */
+public final class ItemGroup {
+    private final Box box;
+    private final int quantity;
+
+    public ItemGroup(Box box, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("quantity must be a positive number");
+        }
+
+        this.box = box;
+        this.quantity = quantity;
+    }
+
+    public Box box() {
+        return box;
+    }
+
+    public int quantity() {
+        return quantity;
+    }
+
+    // The groups one item after the other
+    static List<Box> expand(List<ItemGroup> groups) {
+        return groups.stream()
+                     .flatMap(g -> Collections.nCopies(g.quantity, g.box).stream())
+                     .toList();
+    }
+
+    @Override
+    public String toString() {
+        return quantity + " x " + box;
+    }
+}
@@ -0,0 +1,68 @@
+package com;
+
+import java.util.List;
+
+// Aggregates over a list of items that every quick check in Box needs, computed in one pass
+final class ItemStats {
+    final int count;
+
+    // Per sorted dimension maximum, the items fit "1 in 1" iff the container dominates these
+    final int maxMin;
+    final int maxMed;
+    final int maxMax;
+
+    final long minSum;
+    final long totalVolume;
+    final int gcd;
+
+    private ItemStats(int count, int maxMin, int maxMed, int maxMax, long minSum, long totalVolume, int gcd) {
+        this.count = count;
+        this.maxMin = maxMin;
+        this.maxMed = maxMed;
+        this.maxMax = maxMax;
+        this.minSum = minSum;
+        this.totalVolume = totalVolume;
+        this.gcd = gcd;
+    }
+
+    static ItemStats of(List<Box> boxes) {
+        int maxMin = 0;
+        int maxMed = 0;
+        int maxMax = 0;
+        long minSum = 0;
+        long totalVolume = 0;
+        int gcd = 0;
+
+        for (var box : boxes) {
+            maxMin = Math.max(maxMin, box.min());
+            maxMed = Math.max(maxMed, box.med());
+            maxMax = Math.max(maxMax, box.max());
+
+            minSum += box.min();
+            totalVolume += box.volume();
+
+            if (gcd != 1) {
+                gcd = Box.gcd(gcd, box.gcd());
+            }
+        }
+
+        return new ItemStats(boxes.size(), maxMin, maxMed, maxMax, minSum, totalVolume, gcd);
+    }
+
+    // The aggregates with one more item, without going over the others again
+    ItemStats plus(Box box) {
+        return new ItemStats(count + 1,
+            Math.max(maxMin, box.min()), Math.max(maxMed, box.med()), Math.max(maxMax, box.max()),
+            minSum + box.min(), totalVolume + box.volume(), Box.gcd(gcd, box.gcd()));
+    }
+
+    ItemStats scaleDown(int factor) {
+        if (gcd % factor != 0) {
+            throw new IllegalStateException("Cannot scale down by " + factor);
+        }
+
+        long factorCubed = (long) factor * factor * factor;
+        return new ItemStats(count, maxMin / factor, maxMed / factor, maxMax / factor,
+            minSum / factor, totalVolume / factorCubed, gcd / factor);
+    }
+}
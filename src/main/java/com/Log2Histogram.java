@@ -0,0 +1,46 @@
+package com;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Striped counts of values by power of two, bucket i holds [2^i, 2^(i + 1)) and bucket 0 also everything below
+final class Log2Histogram {
+    static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+    Log2Histogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    void record(long value) {
+        buckets[value <= 1 ? 0 : 63 - Long.numberOfLeadingZeros(value)].increment();
+    }
+
+    long[] snapshot() {
+        long[] counts = new long[BUCKETS];
+
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+        }
+
+        return counts;
+    }
+
+    long total() {
+        long total = 0;
+
+        for (var bucket : buckets) {
+            total += bucket.sum();
+        }
+
+        return total;
+    }
+
+    void reset() {
+        for (var bucket : buckets) {
+            bucket.reset();
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Volume bounds on transformed dimensions (Fekete and Schepers): when f, g and h are dual feasible functions
+ * for the width, height and length of the container, a packing can only exist if the items' f(w)g(h)h(l)
+ * add up to no more than f(W)g(H)h(L). Items may be rotated, so each one contributes the smallest
+ * transformed volume over its orientations that fit the container.
+ * <ul>
+ *     <li>L1 (Martello, Pisinger, Vigo): items longer than half the container on two axes are stacked along
+ *     the third one, items longer than half on all three axes only fit one at a time.</li>
+ *     <li>L2 (Martello, Pisinger, Vigo): items longer than {@code C - k} on an axis take all of it, items shorter
+ *     than {@code k} take none of it, for every k among the item dimensions up to {@code C / 2}.</li>
+ *     <li>DFF: the rounding family of Fekete and Schepers, independently chosen per axis.</li>
+ * </ul>
+ */
+final class LowerBounds {
+    private static final int MAX_DFF_K = 4;
+    private static final int MAX_THRESHOLDS = 16;
+
+    // Keeps (4 * C)^3, twice over, inside a long
+    private static final int MAX_DIMENSION = 1 << 18;
+
+    enum Bound { L1, L2, DFF }
+
+    private final int n;
+    private final int[] capacity;
+
+    // Orientations of item i that fit the container are the slots [6 * i, 6 * i + counts[i])
+    private final int[] counts;
+
+    // Per axis, the dimension of every slot, then of the container
+    private final int[][] dimensions;
+
+    // Per axis, rounding[axis][k] holds the rounded dimensions, k = 0 is the identity
+    private final long[][][] rounding = new long[3][MAX_DFF_K + 1][];
+
+    private LowerBounds(Box container, List<Box> boxes) {
+        int[] capacity = {container.width(), container.height(), container.length()};
+        n = boxes.size();
+        counts = new int[n];
+
+        int slots = 6 * n;
+        int[][] dimensions = new int[3][slots + 1];
+
+        for (int i = 0; i < n; i++) {
+            Box box = boxes.get(i);
+
+            for (var r : box.getDistinctRotations()) {
+                int x = box.width(r);
+                int y = box.height(r);
+                int z = box.length(r);
+
+                if (x <= capacity[0] && y <= capacity[1] && z <= capacity[2]) {
+                    int slot = 6 * i + counts[i]++;
+                    dimensions[0][slot] = x;
+                    dimensions[1][slot] = y;
+                    dimensions[2][slot] = z;
+                }
+            }
+        }
+
+        for (int axis = 0; axis < 3; axis++) {
+            int c = capacity[axis];
+            dimensions[axis][slots] = c;
+
+            for (int k = 0; k <= MAX_DFF_K; k++) {
+                long[] values = new long[slots + 1];
+
+                for (int slot = 0; slot <= slots; slot++) {
+                    values[slot] = round(k, dimensions[axis][slot], c);
+                }
+
+                rounding[axis][k] = values;
+            }
+        }
+
+        this.dimensions = dimensions;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the first bound proving that the items cannot fit, or null. Expects items that fit "1 in 1"
+     * and proves nothing for containers over {@value #MAX_DIMENSION} on a side.
+     */
+    static Bound violated(Box container, List<Box> boxes) {
+        if (container.max() > MAX_DIMENSION) {
+            return null;
+        }
+
+        var bounds = new LowerBounds(container, boxes);
+
+        if (bounds.l1()) {
+            return Bound.L1;
+        }
+
+        if (bounds.l2()) {
+            return Bound.L2;
+        }
+
+        if (bounds.dff()) {
+            return Bound.DFF;
+        }
+
+        return null;
+    }
+
+    private boolean l1() {
+        long[] x = rounding[0][1];
+        long[] y = rounding[1][1];
+        long[] z = rounding[2][1];
+
+        return exceeds(x, y, rounding[2][0])
+            || exceeds(x, rounding[1][0], z)
+            || exceeds(rounding[0][0], y, z)
+            || exceeds(x, y, z);
+    }
+
+    private boolean l2() {
+        long[] largeSmall = new long[6 * n + 1];
+
+        for (int axis = 0; axis < 3; axis++) {
+            // The other two axes get the identity or the half-size rounding
+            int first = axis == 0 ? 1 : 0;
+            int second = axis == 2 ? 1 : 2;
+
+            for (int k : thresholds(axis)) {
+                for (int slot = 0; slot < largeSmall.length; slot++) {
+                    largeSmall[slot] = largeSmall(k, dimensions[axis][slot], capacity[axis]);
+                }
+
+                for (int a = 0; a <= 1; a++) {
+                    for (int b = 0; b <= 1; b++) {
+                        long[] p = rounding[first][a];
+                        long[] q = rounding[second][b];
+
+                        boolean exceeds = switch (axis) {
+                            case 0 -> exceeds(largeSmall, p, q);
+                            case 1 -> exceeds(p, largeSmall, q);
+                            default -> exceeds(p, q, largeSmall);
+                        };
+
+                        if (exceeds) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private boolean dff() {
+        for (int kx = 0; kx <= MAX_DFF_K; kx++) {
+            for (int ky = 0; ky <= MAX_DFF_K; ky++) {
+                for (int kz = 0; kz <= MAX_DFF_K; kz++) {
+                    // All identity is the volume check, all up to 1 is covered by L1
+                    if (kx <= 1 && ky <= 1 && kz <= 1) {
+                        continue;
+                    }
+
+                    if (exceeds(rounding[0][kx], rounding[1][ky], rounding[2][kz])) {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    // Distinct item dimensions in [1, C / 2] along an axis, thinned out to MAX_THRESHOLDS
+    private int[] thresholds(int axis) {
+        int half = capacity[axis] / 2;
+        int[] values = new int[6 * n];
+        int count = 0;
+
+        for (int i = 0; i < n; i++) {
+            for (int slot = 6 * i; slot < 6 * i + counts[i]; slot++) {
+                int value = dimensions[axis][slot];
+
+                if (value <= half) {
+                    values[count++] = value;
+                }
+            }
+        }
+
+        Arrays.sort(values, 0, count);
+        int distinct = 0;
+
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || values[distinct - 1] != values[i]) {
+                values[distinct++] = values[i];
+            }
+        }
+
+        if (distinct <= MAX_THRESHOLDS) {
+            return Arrays.copyOf(values, distinct);
+        }
+
+        int[] thinned = new int[MAX_THRESHOLDS];
+
+        for (int i = 0; i < MAX_THRESHOLDS; i++) {
+            thinned[i] = values[i * distinct / MAX_THRESHOLDS];
+        }
+
+        return thinned;
+    }
+
+    // The container is the last slot, products stay far from overflowing within MAX_DIMENSION
+    private boolean exceeds(long[] x, long[] y, long[] z) {
+        int last = 6 * n;
+        long limit = x[last] * y[last] * z[last];
+        long total = 0;
+
+        for (int i = 0; i < n; i++) {
+            long smallest = Long.MAX_VALUE;
+
+            for (int slot = 6 * i; slot < 6 * i + counts[i]; slot++) {
+                smallest = Math.min(smallest, x[slot] * y[slot] * z[slot]);
+            }
+
+            total += smallest;
+
+            if (total > limit) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static long largeSmall(int k, int x, int c) {
+        return x > c - k ? c : x < k ? 0 : x;
+    }
+
+    // C * k for x = C, the identity for k = 0
+    private static long round(int k, int x, int c) {
+        if (k == 0) {
+            return x;
+        }
+
+        long scaled = (long) (k + 1) * x;
+        return scaled % c == 0 ? (long) x * k : scaled / c * c;
+    }
+}
@@ -1,13 +1,45 @@
 package com;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 
+/**
+ * Without arguments runs the demo instances, otherwise checks an order file through {@link BatchRunner}:
+ * <pre>
+ * java com.Main ORDERS [--format csv|jsonl] [--output FILE] [--limit MS]
+ *                      [--quick-threads N] [--solver-threads N] [--window N]
+ * </pre>
+ * ORDERS is a file or {@code -} for standard input, the format defaults to the file extension and the output to
+ * standard output. Or serves fit checks on localhost through {@link FitServer}:
+ * <pre>
+ * java com.Main --serve PORT [--limit MS] [--solver-threads N] [--max-pending N]
+ * </pre>
+ */
 public class Main {
     private static final String ANSI_RESET  = "\u001B[0m";
     private static final String ANSI_GREEN  = "\u001B[32m";
     private static final String ANSI_RED    = "\u001B[31m";
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 1 && args[0].equals("--serve")) {
+            serve(args);
+            return;
+        }
+
+        if (args.length > 0) {
+            batch(args);
+            return;
+        }
+
         run("aaaaaaaaaaaaa",
             new Box(5, 5, 5),
             List.of(new Box(1, 1, 1), new Box(1, 1, 1), new Box(1, 1, 1),
@@ -68,11 +100,16 @@ public class Main {
                 new Box(1, 1, 2), new Box(2, 1, 1), new Box(1, 3, 1), new Box(1, 2, 1), new Box(1, 2, 1)),
             true);
 
-        run("No fit",
+        run("Exact fit with a slab",
             new Box(3, 3, 3),
             List.of(new Box(3, 1, 1), new Box(1, 1, 1), new Box(1, 1, 1), new Box(1, 1, 1),
                 new Box(1, 1, 1), new Box(1, 1, 1), new Box(1, 1, 3), new Box(1, 1, 1), new Box(1, 2, 1),
                 new Box(2, 1, 2), new Box(2, 1, 1), new Box(1, 3, 1), new Box(1, 2, 1), new Box(1, 2, 1)),
+            true);
+
+        run("No fit",
+            new Box(3, 4, 2),
+            List.of(new Box(1, 1, 1), new Box(2, 2, 2), new Box(3, 3, 1), new Box(3, 1, 1)),
             false);
 
 
@@ -158,6 +195,79 @@ public class Main {
 
     }
 
+    private static void serve(String[] args) throws IOException {
+        int port = Integer.parseInt(args[1]);
+        int limitMs = 1_000;
+        int solverThreads = Runtime.getRuntime().availableProcessors();
+        int maxPending = 64;
+
+        for (int i = 2; i < args.length; i++) {
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException("Missing a value for " + args[i]);
+            }
+
+            int value = Integer.parseInt(args[++i]);
+
+            switch (args[i - 1]) {
+                case "--limit" -> limitMs = value;
+                case "--solver-threads" -> solverThreads = value;
+                case "--max-pending" -> maxPending = value;
+                default -> throw new IllegalArgumentException("Unknown option " + args[i - 1]);
+            }
+        }
+
+        var server = new FitServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+            FitOptions.defaults().withTimeLimit(limitMs), solverThreads, maxPending);
+        server.start();
+
+        System.err.println("Serving on http://" + server.address().getHostString() + ':' + server.address().getPort());
+    }
+
+    private static void batch(String[] args) throws IOException, InterruptedException {
+        String input = args[0];
+        String output = null;
+        String format = input.endsWith(".jsonl") || input.endsWith(".ndjson") ? "jsonl" : "csv";
+        int limitMs = 1_000;
+        int cores = Runtime.getRuntime().availableProcessors();
+        int quickThreads = cores;
+        int solverThreads = cores;
+        int window = 4_096;
+
+        for (int i = 1; i < args.length; i++) {
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException("Missing a value for " + args[i]);
+            }
+
+            String value = args[++i];
+
+            switch (args[i - 1]) {
+                case "--format" -> format = value;
+                case "--output" -> output = value;
+                case "--limit" -> limitMs = Integer.parseInt(value);
+                case "--quick-threads" -> quickThreads = Integer.parseInt(value);
+                case "--solver-threads" -> solverThreads = Integer.parseInt(value);
+                case "--window" -> window = Integer.parseInt(value);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i - 1]);
+            }
+        }
+
+        var runner = new BatchRunner(FitOptions.defaults().withTimeLimit(limitMs), quickThreads, solverThreads,
+            window);
+        long start = System.nanoTime();
+
+        try (var in = input.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 1 << 16)
+                : Files.newBufferedReader(Path.of(input));
+             var out = output == null
+                ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16)
+                : Files.newBufferedWriter(Path.of(output))) {
+            long records = runner.run(in, out, BatchRunner.Format.valueOf(format.toUpperCase()));
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            System.err.printf("%d records in %d ms%n", records, elapsedMs);
+        }
+    }
+
     private static void run(String name, Box container, List<Box> items, boolean expected) {
         long start = System.nanoTime();
 
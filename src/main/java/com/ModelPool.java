@@ -0,0 +1,100 @@
+package com;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per thread {@link PackingModel} templates, so that a solver call loads its items into a model already built
+ * for the container and item count instead of building one. Building posts a quadratic number of constraints,
+ * loading a linear number.
+ * <p>
+ * Templates are keyed on the container, the formulation and the number of items, and the least recently used one
+ * goes once there are more than {@link #MAX_TEMPLATES}. The container is taken as it is turned, unlike
+ * {@link Box#equals(Object)}: a template places the items along its own width, height and length.
+ */
+final class ModelPool {
+    static final int MAX_TEMPLATES = 16;
+
+    private static final ThreadLocal<ModelPool> POOL = ThreadLocal.withInitial(ModelPool::new);
+
+    // Access ordered, so iteration starts at the least recently used template
+    private final LinkedHashMap<Key, PackingModel> templates = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, PackingModel> eldest) {
+            return size() > MAX_TEMPLATES;
+        }
+    };
+
+    private ModelPool() {
+    }
+
+    static ModelPool get() {
+        return POOL.get();
+    }
+
+    /**
+     * A template with the items loaded, it goes back to the pool with {@link #release(PackingModel)}.
+     * A thread borrows one template at a time per key: a template still out is taken off the pool until
+     * it is released.
+     */
+    PackingModel acquire(Box container, List<Box> boxes, FitOptions.Formulation formulation,
+                         Set<FitOptions.Symmetry> symmetryBreaking) {
+        var key = new Key(container, formulation, boxes.size());
+        var model = templates.remove(key);
+
+        if (model == null) {
+            model = new PackingModel(container, boxes.size(), formulation);
+        }
+
+        model.key = key;
+        model.load(boxes, symmetryBreaking);
+        return model;
+    }
+
+    void release(PackingModel model) {
+        model.unload();
+        templates.put(model.key, model);
+    }
+
+    int size() {
+        return templates.size();
+    }
+
+    static final class Key {
+        private final int width;
+        private final int height;
+        private final int length;
+        private final FitOptions.Formulation formulation;
+        private final int items;
+
+        Key(Box container, FitOptions.Formulation formulation, int items) {
+            this.width = container.width();
+            this.height = container.height();
+            this.length = container.length();
+            this.formulation = formulation;
+            this.items = items;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            Key key = (Key) o;
+            return width == key.width && height == key.height && length == key.length && items == key.items
+                && formulation == key.formulation;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = width;
+            result = 31 * result + height;
+            result = 31 * result + length;
+            result = 31 * result + formulation.hashCode();
+            return 31 * result + items;
+        }
+    }
+}
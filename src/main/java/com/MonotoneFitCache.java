@@ -0,0 +1,211 @@
+package com;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.Box.Verdict.*;
+
+/**
+ * Thread safe memoizing layer in front of {@link Box#canTheseFitIn(List)} that also answers for related item
+ * multisets: whatever fits in a container, any part of it fits too, and whatever does not fit, nothing more
+ * does. A query is answered when a cached multiset that fits holds all of its items, or a cached one that does
+ * not fit is part of it, so adding or taking out lines of an order that was already checked needs no new check
+ * most of the time.
+ * <p>
+ * For each container only the biggest multisets known to fit and the smallest known not to fit are kept, at
+ * most {@code maxSetsPerContainer} of each, the least recently used going first, for at most
+ * {@code maxContainers} containers, the same. As with {@link FitCache}, answers cut short by the time limit are
+ * never cached and the items are compared as multisets, in any order and orientation.
+ */
+public final class MonotoneFitCache {
+    private final int maxSetsPerContainer;
+
+    // Access ordered, so iteration starts at the least recently used container
+    private final LinkedHashMap<Box, Sets> containers;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder inferred = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public MonotoneFitCache(int maxContainers, int maxSetsPerContainer) {
+        if (maxContainers <= 0 || maxSetsPerContainer <= 0) {
+            throw new IllegalArgumentException("maxContainers and maxSetsPerContainer must be positive numbers");
+        }
+
+        this.maxSetsPerContainer = maxSetsPerContainer;
+
+        containers = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Box, Sets> eldest) {
+                return size() > maxContainers;
+            }
+        };
+    }
+
+    public boolean canTheseFitIn(Box container, List<Box> boxes) {
+        var key = FitKey.of(container, boxes);
+        Boolean cached = get(key);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        return put(key, container.verdict(boxes));
+    }
+
+    public boolean canTheseFitIn(Box container, List<Box> boxes, int limitMs) {
+        var key = FitKey.of(container, boxes);
+        Boolean cached = get(key);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        return put(key, container.verdict(boxes, limitMs));
+    }
+
+    /**
+     * The options only change how long an answer takes, so answers are shared across all of them.
+     */
+    public boolean canTheseFitIn(Box container, List<Box> boxes, FitOptions options) {
+        var key = FitKey.of(container, boxes);
+        Boolean cached = get(key);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        return put(key, container.verdict(boxes, options));
+    }
+
+    private Boolean get(FitKey key) {
+        Boolean cached = null;
+
+        if (key != null) {
+            synchronized (containers) {
+                var sets = containers.get(key.container());
+
+                if (sets != null) {
+                    cached = sets.get(key);
+                }
+            }
+        }
+
+        if (cached == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+
+        return cached;
+    }
+
+    private boolean put(FitKey key, Box.Verdict verdict) {
+        boolean fits = verdict == FITS;
+
+        if (key == null || verdict == UNKNOWN) {
+            return fits;
+        }
+
+        synchronized (containers) {
+            containers.computeIfAbsent(key.container(), container -> new Sets()).put(key, fits);
+        }
+
+        return fits;
+    }
+
+    // Answers, the exact ones included
+    public long hits() {
+        return hits.sum();
+    }
+
+    // Answers from a different multiset than the one asked about
+    public long inferred() {
+        return inferred.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    // Multisets kept, over all the containers
+    public int size() {
+        synchronized (containers) {
+            int size = 0;
+
+            for (var sets : containers.values()) {
+                size += sets.fitting.size() + sets.notFitting.size();
+            }
+
+            return size;
+        }
+    }
+
+    public void clear() {
+        synchronized (containers) {
+            containers.clear();
+        }
+    }
+
+    // The multisets of one container, most recently used last
+    private final class Sets {
+        // None of them is part of another one, the same for the ones below
+        final List<FitKey> fitting = new ArrayList<>();
+        final List<FitKey> notFitting = new ArrayList<>();
+
+        Boolean get(FitKey key) {
+            for (int i = fitting.size() - 1; i >= 0; i--) {
+                if (fitting.get(i).containsAll(key)) {
+                    return used(fitting, i, key, true);
+                }
+            }
+
+            for (int i = notFitting.size() - 1; i >= 0; i--) {
+                if (key.containsAll(notFitting.get(i))) {
+                    return used(notFitting, i, key, false);
+                }
+            }
+
+            return null;
+        }
+
+        void put(FitKey key, boolean fits) {
+            if (fits) {
+                add(fitting, key, true);
+            } else {
+                add(notFitting, key, false);
+            }
+        }
+
+        private Boolean used(List<FitKey> sets, int i, FitKey key, boolean fits) {
+            var set = sets.remove(i);
+            sets.add(set);
+
+            if (!set.equals(key)) {
+                inferred.increment();
+            }
+
+            return fits;
+        }
+
+        // A fitting multiset makes the fitting ones it holds redundant, a not fitting one the ones holding it
+        private void add(List<FitKey> sets, FitKey key, boolean fits) {
+            for (var set : sets) {
+                // Put in by another thread since the lookup
+                if (fits ? set.containsAll(key) : key.containsAll(set)) {
+                    return;
+                }
+            }
+
+            sets.removeIf(set -> fits ? key.containsAll(set) : set.containsAll(key));
+            sets.add(key);
+
+            if (sets.size() > maxSetsPerContainer) {
+                sets.remove(0);
+            }
+        }
+    }
+}
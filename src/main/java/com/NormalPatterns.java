@@ -0,0 +1,111 @@
+package com;
+
+import java.util.List;
+
+/**
+ * Normal patterns (Herz, Christofides and Whitlock): every packing can be pushed back, down and left until each
+ * item touches the container or another item, and then every coordinate is a sum of dimensions of other items.
+ * Those sums are the only positions worth trying, which matters when dimensions come in millimetres.
+ * <p>
+ * Sums are kept in a bitset, one shift and or per item dimension.
+ */
+final class NormalPatterns {
+
+    private NormalPatterns() {
+    }
+
+    /**
+     * The sums up to size of at most one dimension of each item, ascending and starting with 0. Items may be
+     * rotated, so any of their dimensions counts.
+     */
+    static int[] subsetSums(int size, List<Box> boxes) {
+        long[] reachable = new long[(size >> 6) + 1];
+        long[] shifted = new long[reachable.length];
+        reachable[0] = 1;
+
+        for (var box : boxes) {
+            System.arraycopy(reachable, 0, shifted, 0, reachable.length);
+
+            orShifted(reachable, shifted, box.min(), size);
+
+            if (box.med() != box.min()) {
+                orShifted(reachable, shifted, box.med(), size);
+            }
+
+            if (box.max() != box.med()) {
+                orShifted(reachable, shifted, box.max(), size);
+            }
+
+            System.arraycopy(shifted, 0, reachable, 0, reachable.length);
+        }
+
+        return values(reachable, size);
+    }
+
+    /**
+     * The sums up to size of any number of copies of the dimensions, ascending and starting with 0.
+     */
+    static int[] sums(int size, int[] dimensions) {
+        long[] reachable = new long[(size >> 6) + 1];
+        reachable[0] = 1;
+
+        for (int value = 0; value <= size; value++) {
+            if ((reachable[value >> 6] & (1L << value)) == 0) {
+                continue;
+            }
+
+            for (int d : dimensions) {
+                if (value + d <= size) {
+                    reachable[(value + d) >> 6] |= 1L << (value + d);
+                }
+            }
+        }
+
+        return values(reachable, size);
+    }
+
+    // target |= source << shift, dropping the bits past size
+    private static void orShifted(long[] source, long[] target, int shift, int size) {
+        int words = shift >> 6;
+        int bits = shift & 63;
+
+        for (int w = target.length - 1; w >= words; w--) {
+            long value = source[w - words] << bits;
+
+            if (bits != 0 && w - words > 0) {
+                value |= source[w - words - 1] >>> (64 - bits);
+            }
+
+            target[w] |= value;
+        }
+
+        // Bits past size would show up once the words are read back
+        int last = size & 63;
+
+        if (last != 63) {
+            target[target.length - 1] &= (1L << (last + 1)) - 1;
+        }
+    }
+
+    private static int[] values(long[] reachable, int size) {
+        int count = 0;
+
+        for (long word : reachable) {
+            count += Long.bitCount(word);
+        }
+
+        int[] values = new int[count];
+        int v = 0;
+
+        for (int w = 0; w < reachable.length; w++) {
+            long word = reachable[w];
+
+            while (word != 0) {
+                values[v++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+
+        return values;
+    }
+}
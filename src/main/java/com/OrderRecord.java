@@ -0,0 +1,279 @@
+package com;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One (container, items) line of an order file, see {@link BatchRunner}. The items are kept as three
+ * dimensions each, in the form {@link BatchFitter} takes them.
+ */
+final class OrderRecord {
+    final String id;
+    final int width;
+    final int height;
+    final int length;
+    final int[] dimensions;
+
+    private OrderRecord(String id, int width, int height, int length, int[] dimensions) {
+        this.id = id;
+        this.width = width;
+        this.height = height;
+        this.length = length;
+        this.dimensions = dimensions;
+    }
+
+    int count() {
+        return dimensions.length / 3;
+    }
+
+    List<Box> items() {
+        List<Box> items = new ArrayList<>(count());
+
+        for (int k = 0; k < dimensions.length; k += 3) {
+            items.add(new Box(dimensions[k], dimensions[k + 1], dimensions[k + 2]));
+        }
+
+        return items;
+    }
+
+    // id,W,H,L,w1,h1,l1,w2,h2,l2,...
+    static OrderRecord parseCsv(String line) {
+        String[] fields = line.split(",", -1);
+
+        if (fields.length < 4 || (fields.length - 4) % 3 != 0) {
+            throw new IllegalArgumentException("Expected an id, three container and three dimensions per item");
+        }
+
+        int[] dimensions = new int[fields.length - 4];
+
+        for (int i = 0; i < dimensions.length; i++) {
+            dimensions[i] = dimension(fields[4 + i]);
+        }
+
+        return new OrderRecord(fields[0].trim(),
+            dimension(fields[1]), dimension(fields[2]), dimension(fields[3]), dimensions);
+    }
+
+    // {"id": "o-1", "container": [W, H, L], "items": [[w1, h1, l1], ...]}, the id may be left out and other
+    // keys are ignored
+    static OrderRecord parseJson(String line) {
+        var parser = new JsonParser(line);
+        String id = "";
+        int[] container = null;
+        int[] dimensions = null;
+
+        parser.expect('{');
+
+        if (!parser.skipIf('}')) {
+            do {
+                String key = parser.string();
+                parser.expect(':');
+
+                switch (key) {
+                    case "id" -> id = parser.scalar();
+                    case "container" -> container = parser.triple();
+                    case "items" -> dimensions = parser.triples();
+                    default -> parser.skipValue();
+                }
+            } while (parser.skipIf(','));
+
+            parser.expect('}');
+        }
+
+        parser.end();
+
+        if (container == null || dimensions == null) {
+            throw new IllegalArgumentException("Expected \"container\" and \"items\"");
+        }
+
+        return new OrderRecord(id, container[0], container[1], container[2], dimensions);
+    }
+
+    private static int dimension(String field) {
+        try {
+            return Integer.parseInt(field.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a dimension: " + field);
+        }
+    }
+
+    // Just enough JSON for one record per line
+    private static final class JsonParser {
+        private final String text;
+        private int at;
+
+        JsonParser(String text) {
+            this.text = text;
+        }
+
+        void expect(char c) {
+            if (!skipIf(c)) {
+                throw error("Expected '" + c + "'");
+            }
+        }
+
+        boolean skipIf(char c) {
+            skipSpaces();
+
+            if (at < text.length() && text.charAt(at) == c) {
+                at++;
+                return true;
+            }
+
+            return false;
+        }
+
+        void end() {
+            skipSpaces();
+
+            if (at != text.length()) {
+                throw error("Trailing characters");
+            }
+        }
+
+        String string() {
+            expect('"');
+            var result = new StringBuilder();
+
+            while (at < text.length()) {
+                char c = text.charAt(at++);
+
+                if (c == '"') {
+                    return result.toString();
+                }
+
+                if (c == '\\' && at < text.length()) {
+                    c = text.charAt(at++);
+
+                    switch (c) {
+                        case 'n' -> c = '\n';
+                        case 't' -> c = '\t';
+                        case 'r' -> c = '\r';
+                        case 'b' -> c = '\b';
+                        case 'f' -> c = '\f';
+                        case 'u' -> {
+                            if (at + 4 > text.length()) {
+                                throw error("Bad escape");
+                            }
+
+                            c = (char) Integer.parseInt(text.substring(at, at + 4), 16);
+                            at += 4;
+                        }
+                        default -> { }
+                    }
+                }
+
+                result.append(c);
+            }
+
+            throw error("Unterminated string");
+        }
+
+        // A string or the text of a number
+        String scalar() {
+            skipSpaces();
+            return at < text.length() && text.charAt(at) == '"' ? string() : literal();
+        }
+
+        int[] triple() {
+            int[] result = new int[3];
+            expect('[');
+
+            for (int i = 0; i < 3; i++) {
+                if (i > 0) {
+                    expect(',');
+                }
+
+                result[i] = dimension(literal());
+            }
+
+            expect(']');
+            return result;
+        }
+
+        int[] triples() {
+            int[] result = new int[3 * 16];
+            int size = 0;
+            expect('[');
+
+            if (!skipIf(']')) {
+                do {
+                    if (size == result.length) {
+                        result = Arrays.copyOf(result, 2 * size);
+                    }
+
+                    System.arraycopy(triple(), 0, result, size, 3);
+                    size += 3;
+                } while (skipIf(','));
+
+                expect(']');
+            }
+
+            return Arrays.copyOf(result, size);
+        }
+
+        void skipValue() {
+            skipSpaces();
+
+            if (at >= text.length()) {
+                throw error("Expected a value");
+            }
+
+            switch (text.charAt(at)) {
+                case '"' -> string();
+                case '[' -> {
+                    at++;
+
+                    if (!skipIf(']')) {
+                        do {
+                            skipValue();
+                        } while (skipIf(','));
+
+                        expect(']');
+                    }
+                }
+                case '{' -> {
+                    at++;
+
+                    if (!skipIf('}')) {
+                        do {
+                            string();
+                            expect(':');
+                            skipValue();
+                        } while (skipIf(','));
+
+                        expect('}');
+                    }
+                }
+                default -> literal();
+            }
+        }
+
+        // Numbers, true, false and null
+        private String literal() {
+            skipSpaces();
+            int start = at;
+
+            while (at < text.length() && "{}[],:\" \t".indexOf(text.charAt(at)) < 0) {
+                at++;
+            }
+
+            if (start == at) {
+                throw error("Expected a value");
+            }
+
+            return text.substring(start, at);
+        }
+
+        private void skipSpaces() {
+            while (at < text.length() && Character.isWhitespace(text.charAt(at))) {
+                at++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at column " + (at + 1));
+        }
+    }
+}
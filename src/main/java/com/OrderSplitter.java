@@ -0,0 +1,242 @@
+package com;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Splits an order over as few containers of a {@link BoxCatalog} as it can, each as small as it can.
+ * <p>
+ * First fit decreasing: the items go biggest first ({@link Box#BOX_COMPARATOR}) into the first bin that still
+ * takes them, and a new bin gets the biggest container that takes the item. While there are more bins than the
+ * volume lower bound, the items of the last bin are moved into the others where they fit. Last, every bin goes
+ * into the smallest container of the catalog that holds its items.
+ * <p>
+ * Every bin keeps a placement of its items: the extreme points place what they can, the check that takes an item
+ * they could not hands over its own placement, which they go on from. A bin moved into a smaller container gets
+ * the placement of the check that proved it fits there.
+ * <p>
+ * Every check past the volume and "1 in 1" ones goes through a shared {@link FitCache}, so orders with items in
+ * common get cheaper. A check cut short by the time limit counts as not fitting, so set one. Thread safe as long
+ * as the cache is.
+ */
+public final class OrderSplitter {
+    private final FitCache cache;
+    private final FitOptions options;
+
+    // By volume, smallest first
+    private final Box[] containers;
+
+    public OrderSplitter(BoxCatalog catalog, FitCache cache, FitOptions options) {
+        this.cache = cache;
+        this.options = options;
+
+        containers = catalog.containers().toArray(new Box[0]);
+    }
+
+    /**
+     * Empty when one of the items does not fit into any container.
+     */
+    public Optional<List<Bin>> split(List<Box> items) {
+        if (items.isEmpty()) {
+            return Optional.of(List.of());
+        }
+
+        List<Box> sorted = new ArrayList<>(items);
+        sorted.sort(Box.BOX_COMPARATOR.reversed());
+
+        List<OpenBin> bins = new ArrayList<>();
+
+        for (var item : sorted) {
+            if (firstFit(bins, bins.size(), item) != null) {
+                continue;
+            }
+
+            var container = biggestTaking(item);
+
+            if (container == null) {
+                return Optional.empty();
+            }
+
+            bins.add(new OpenBin(container, item));
+        }
+
+        int lowerBound = lowerBound(sorted);
+
+        while (bins.size() > lowerBound && emptyLast(bins)) {
+            bins.remove(bins.size() - 1);
+        }
+
+        List<Bin> result = new ArrayList<>(bins.size());
+
+        for (var bin : bins) {
+            result.add(smallestTaking(bin));
+        }
+
+        return Optional.of(result);
+    }
+
+    // Adds the item to the first of the leading count bins that takes it, trying the cheap checks on all first
+    private OpenBin firstFit(List<OpenBin> bins, int count, Box item) {
+        for (boolean exact : new boolean[]{false, true}) {
+            for (int b = 0; b < count; b++) {
+                var bin = bins.get(b);
+
+                if (bin.add(item, exact)) {
+                    return bin;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    // Moves the items of the last bin into the others, all of them or none
+    private boolean emptyLast(List<OpenBin> bins) {
+        int others = bins.size() - 1;
+        var last = bins.get(others);
+        List<OpenBin> into = new ArrayList<>();
+
+        for (var item : last.items) {
+            var bin = firstFit(bins, others, item);
+
+            if (bin == null) {
+                for (int i = into.size() - 1; i >= 0; i--) {
+                    into.get(i).removeLast();
+                }
+
+                return false;
+            }
+
+            into.add(bin);
+        }
+
+        return true;
+    }
+
+    private Box biggestTaking(Box item) {
+        for (int i = containers.length - 1; i >= 0; i--) {
+            if (containers[i].dominates(item)) {
+                return containers[i];
+            }
+        }
+
+        return null;
+    }
+
+    // Falls back to the container the bin was filled in
+    private Bin smallestTaking(OpenBin bin) {
+        for (var container : containers) {
+            if (container == bin.container) {
+                break;
+            }
+
+            if (container.volume() >= bin.stats.totalVolume && container.fitsOneInOne(bin.stats)) {
+                var packing = cache.packInto(container, bin.items, options);
+
+                if (packing.isPresent()) {
+                    return new Bin(container, bin.items, packing.get());
+                }
+            }
+        }
+
+        return new Bin(bin.container, bin.items, bin.packing());
+    }
+
+    // No container holds more than the biggest volume
+    private int lowerBound(List<Box> items) {
+        long volume = ItemStats.of(items).totalVolume;
+        long biggest = containers[containers.length - 1].volume();
+
+        return (int) ((volume + biggest - 1) / biggest);
+    }
+
+    private final class OpenBin {
+        final Box container;
+        final List<Box> items = new ArrayList<>();
+        ItemStats stats;
+
+        // Placement of all the items, the next ones go around them
+        private final ExtremePoints space;
+
+        // Items turned down so far, the bin only fills up so whatever dominates one of them goes too
+        private final List<Box> rejected = new ArrayList<>();
+
+        OpenBin(Box container, Box item) {
+            this.container = container;
+
+            items.add(item);
+            stats = ItemStats.of(items);
+
+            space = new ExtremePoints(container, 16);
+            space.place(item);
+        }
+
+        // Without exact, only what the extreme points can place
+        boolean add(Box item, boolean exact) {
+            var newStats = stats.plus(item);
+
+            if (container.volume() < newStats.totalVolume || !container.fitsOneInOne(newStats)) {
+                return false;
+            }
+
+            for (var other : rejected) {
+                if (item.dominates(other)) {
+                    return false;
+                }
+            }
+
+            if (space.place(item)) {
+                items.add(item);
+                stats = newStats;
+                return true;
+            }
+
+            if (!exact) {
+                return false;
+            }
+
+            items.add(item);
+            var packing = cache.packInto(container, items, options);
+
+            if (packing.isEmpty()) {
+                items.remove(items.size() - 1);
+                rejected.add(item);
+                return false;
+            }
+
+            stats = newStats;
+            load(packing.get(), items.size());
+            return true;
+        }
+
+        Packing packing() {
+            var packing = new Packing(container, items);
+
+            for (int i = 0; i < items.size(); i++) {
+                packing.place(i, space.x(i), space.y(i), space.z(i), space.rotation(i));
+            }
+
+            return packing;
+        }
+
+        // The others stay where they are
+        void removeLast() {
+            var packing = packing();
+
+            items.remove(items.size() - 1);
+            stats = ItemStats.of(items);
+            load(packing, items.size());
+            rejected.clear();
+        }
+
+        // The leading count items where the packing has them
+        private void load(Packing packing, int count) {
+            space.clear();
+
+            for (int i = 0; i < count; i++) {
+                space.add(packing.x(i), packing.y(i), packing.z(i), items.get(i), packing.rotation(i));
+            }
+        }
+    }
+}
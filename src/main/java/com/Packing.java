@@ -0,0 +1,120 @@
+package com;
+
+import java.util.List;
+
+import static com.Box.Rotation;
+
+/**
+ * Where every item went, as returned by {@link Box#packInto(List)}. Item {@code i} is the {@code i}-th item of
+ * the query, placed with its lower left back corner at {@code (x(i), y(i), z(i))} and turned by
+ * {@code rotation(i)}, so it spans {@code width(i)} along the container width and so on.
+ * <p>
+ * Immutable, the placements are kept in primitive arrays rather than one object per item.
+ */
+public final class Packing {
+    private static final Rotation[] ROTATIONS = Rotation.values();
+
+    private final Box container;
+    private final List<Box> items;
+
+    private final int[] xs;
+    private final int[] ys;
+    private final int[] zs;
+    private final byte[] rotations;
+
+    // Filled in by the tier that proves the fit, never changes once handed out
+    Packing(Box container, List<Box> items) {
+        this.container = container;
+        this.items = List.copyOf(items);
+
+        int n = items.size();
+        xs = new int[n];
+        ys = new int[n];
+        zs = new int[n];
+        rotations = new byte[n];
+    }
+
+    void place(int i, int x, int y, int z, Rotation rotation) {
+        xs[i] = x;
+        ys[i] = y;
+        zs[i] = z;
+        rotations[i] = (byte) rotation.ordinal();
+    }
+
+    // Back from a packing of the items scaled down by factor
+    void scaleUp(int factor) {
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] *= factor;
+            ys[i] *= factor;
+            zs[i] *= factor;
+        }
+    }
+
+    // For a scaled down instance of the leading items, null when a position is not on the coarser grid
+    Packing scaleDown(Box container, List<Box> items, int factor) {
+        var scaled = new Packing(container, items.subList(0, size()));
+
+        for (int i = 0; i < size(); i++) {
+            if (xs[i] % factor != 0 || ys[i] % factor != 0 || zs[i] % factor != 0) {
+                return null;
+            }
+
+            scaled.place(i, xs[i] / factor, ys[i] / factor, zs[i] / factor, rotation(i));
+        }
+
+        return scaled;
+    }
+
+    public Box container() {
+        return container;
+    }
+
+    public List<Box> items() {
+        return items;
+    }
+
+    public int size() {
+        return xs.length;
+    }
+
+    public int x(int i) {
+        return xs[i];
+    }
+
+    public int y(int i) {
+        return ys[i];
+    }
+
+    public int z(int i) {
+        return zs[i];
+    }
+
+    public Rotation rotation(int i) {
+        return ROTATIONS[rotations[i]];
+    }
+
+    public int width(int i) {
+        return items.get(i).width(rotation(i));
+    }
+
+    public int height(int i) {
+        return items.get(i).height(rotation(i));
+    }
+
+    public int length(int i) {
+        return items.get(i).length(rotation(i));
+    }
+
+    @Override
+    public String toString() {
+        var sb = new StringBuilder("Packing(").append(container);
+
+        for (int i = 0; i < xs.length; i++) {
+            sb.append(", ").append(items.get(i))
+              .append(" at (").append(xs[i]).append(", ").append(ys[i]).append(", ").append(zs[i])
+              .append(") ").append(rotation(i));
+        }
+
+        return sb.append(')').toString();
+    }
+}
@@ -0,0 +1,437 @@
+package com;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.search.limits.FailCounter;
+import org.chocosolver.solver.search.strategy.Search;
+import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
+import org.chocosolver.solver.variables.BoolVar;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+import static com.Box.Rotation;
+
+// The Choco model behind the "big guns" of Box, items are expected sorted biggest first
+final class PackingModel {
+    // Number of distinct search configurations used by the portfolio before seeds start repeating
+    static final int SEARCH_CONFIGURATIONS = 6;
+
+    // Positions stay intervals past this many normal patterns, or when the patterns leave out little
+    private static final int MAX_ENUMERATED_POSITIONS = 4096;
+    private static final double MAX_ENUMERATED_DENSITY = 0.9;
+
+    final Model model;
+    List<Box> boxes;
+
+    // Coordinates at lower left point (regardless of rotation)
+    final IntVar[] xs;
+    final IntVar[] ys;
+    final IntVar[] zs;
+
+    // Chosen per box
+    final IntVar[] rot;
+    final IntVar[] cW;
+    final IntVar[] cH;
+    final IntVar[] cL;
+
+    private final int width;
+    private final int height;
+    private final int length;
+
+    // Posted by load, taken back by unload
+    private final List<Constraint> loaded = new ArrayList<>();
+
+    // Of the pool a template goes back to
+    ModelPool.Key key;
+
+    private boolean hinted;
+
+    // All six rotations of every item rather than only the distinct ones
+    private boolean allRotations;
+
+    PackingModel(Box container, List<Box> boxes, FitOptions.Formulation formulation) {
+        this(container, boxes, formulation, FitOptions.defaults().symmetryBreaking());
+    }
+
+    PackingModel(Box container, List<Box> boxes, FitOptions.Formulation formulation,
+                 Set<FitOptions.Symmetry> symmetryBreaking) {
+        this(container, boxes.size(), "Boxes into box");
+        this.boxes = boxes;
+        allRotations = !symmetryBreaking.contains(FitOptions.Symmetry.ROTATIONS);
+
+        int n = boxes.size();
+
+        // Items only ever need to go at sums of other item dimensions
+        int[] patterns = NormalPatterns.subsetSums(Math.max(width, Math.max(height, length)), boxes);
+
+        for (int i = 0; i < n; i++) {
+            Box ibox = boxes.get(i);
+
+            xs[i] = position("x_" + i, patterns, width - ibox.min());
+            ys[i] = position("y_" + i, patterns, height - ibox.min());
+            zs[i] = position("z_" + i, patterns, length - ibox.min());
+        }
+
+        for (int i = 0; i < n; i++) {
+            Box ibox = boxes.get(i);
+
+            rot[i] = model.intVar("rot_" + i, 0, rotations(ibox).length - 1);
+
+            cH[i] = model.intVar("chosenHeight_" + i, dimensions(ibox, Box::height));
+            cW[i] = model.intVar("chosenWidth_" + i, dimensions(ibox, Box::width));
+            cL[i] = model.intVar("chosenLength_" + i, dimensions(ibox, Box::length));
+
+            for (var constraint : rotation(i, ibox)) {
+                constraint.post();
+            }
+        }
+
+        postStructure(formulation);
+
+        for (var constraint : symmetry(symmetryBreaking)) {
+            constraint.post();
+        }
+    }
+
+    /**
+     * A model for any n items in this container. It holds everything but the items themselves, which
+     * {@link #load(List, Set)} adds before each search.
+     */
+    PackingModel(Box container, int n, FitOptions.Formulation formulation) {
+        this(container, n, "Boxes into box template");
+
+        int size = Math.max(width, Math.max(height, length));
+
+        for (int i = 0; i < n; i++) {
+            xs[i] = model.intVar("x_" + i, 0, width - 1);
+            ys[i] = model.intVar("y_" + i, 0, height - 1);
+            zs[i] = model.intVar("z_" + i, 0, length - 1);
+
+            // The rotations past those of the item are ruled out by its element constraints
+            rot[i] = model.intVar("rot_" + i, 0, Rotation.values().length - 1);
+
+            cH[i] = model.intVar("chosenHeight_" + i, 1, size);
+            cW[i] = model.intVar("chosenWidth_" + i, 1, size);
+            cL[i] = model.intVar("chosenLength_" + i, 1, size);
+        }
+
+        postStructure(formulation);
+    }
+
+    private PackingModel(Box container, int n, String name) {
+        width = container.width();
+        height = container.height();
+        length = container.length();
+
+        model = new Model(name);
+
+        xs = new IntVar[n];
+        ys = new IntVar[n];
+        zs = new IntVar[n];
+
+        rot = new IntVar[n];
+        cW  = new IntVar[n];
+        cH  = new IntVar[n];
+        cL  = new IntVar[n];
+    }
+
+    /**
+     * Posts the items, biggest first, into a template made for as many of them. They have to be taken back out
+     * with {@link #unload()} before the next ones go in.
+     */
+    void load(List<Box> boxes, Set<FitOptions.Symmetry> symmetryBreaking) {
+        this.boxes = boxes;
+        allRotations = !symmetryBreaking.contains(FitOptions.Symmetry.ROTATIONS);
+
+        int[] patterns = NormalPatterns.subsetSums(Math.max(width, Math.max(height, length)), boxes);
+
+        for (int i = 0; i < boxes.size(); i++) {
+            Box ibox = boxes.get(i);
+
+            loaded.add(positions(xs[i], patterns, width - ibox.min()));
+            loaded.add(positions(ys[i], patterns, height - ibox.min()));
+            loaded.add(positions(zs[i], patterns, length - ibox.min()));
+            loaded.addAll(rotation(i, ibox));
+        }
+
+        loaded.addAll(symmetry(symmetryBreaking));
+        model.post(loaded.toArray(new Constraint[0]));
+
+        // Last conflict remembers the variables of the previous search
+        model.getSolver().setSearch(placementSearch());
+    }
+
+    // Back to the state before load, domains, limits and hints included
+    void unload() {
+        var solver = model.getSolver();
+        solver.reset();
+        solver.removeAllStopCriteria();
+
+        if (hinted) {
+            solver.removeHints();
+            hinted = false;
+        }
+
+        model.unpost(loaded.toArray(new Constraint[0]));
+        loaded.clear();
+        boxes = null;
+    }
+
+    private Rotation[] rotations(Box box) {
+        return allRotations ? Rotation.values() : box.getDistinctRotations();
+    }
+
+    private int[] dimensions(Box box, BiFunction<Box, Rotation, Integer> dimension) {
+        Rotation[] rotations = rotations(box);
+        int[] dimensions = new int[rotations.length];
+
+        for (int j = 0; j < rotations.length; j++) {
+            dimensions[j] = dimension.apply(box, rotations[j]);
+        }
+
+        return dimensions;
+    }
+
+    // Chosen dimensions of item i follow its rotation
+    private List<Constraint> rotation(int i, Box box) {
+        return List.of(
+            model.element(cH[i], dimensions(box, Box::height), rot[i]),
+            model.element(cW[i], dimensions(box, Box::width), rot[i]),
+            model.element(cL[i], dimensions(box, Box::length), rot[i]));
+    }
+
+    private void postStructure(FitOptions.Formulation formulation) {
+        for (int i = 0; i < xs.length; i++) {
+            // Container Bounds
+            model.arithm(xs[i], "+", cW[i], "<=", width).post();
+            model.arithm(ys[i], "+", cH[i], "<=", height).post();
+            model.arithm(zs[i], "+", cL[i], "<=", length).post();
+        }
+
+        switch (formulation) {
+            case PAIRWISE -> postPairwiseNonOverlap();
+            case NON_OVERLAP_3D -> new Constraint("NonOverlap3D", new PropNonOverlap3D(xs, ys, zs, cW, cH, cL)).post();
+        }
+
+        // Place the items one by one, the default search gets lost in the relative position booleans
+        model.getSolver().setSearch(placementSearch());
+    }
+
+    private List<Constraint> symmetry(Set<FitOptions.Symmetry> rules) {
+        List<Constraint> constraints = new ArrayList<>();
+
+        if (rules.contains(FitOptions.Symmetry.IDENTICAL_ITEMS)) {
+            // identical boxes -> enforce ordering
+            for (int i = 0; i < boxes.size() - 1; i++) {
+                if (identical(boxes.get(i), boxes.get(i + 1))) {
+                    constraints.add(model.lexLessEq(
+                        new IntVar[]{xs[i], ys[i], zs[i]},
+                        new IntVar[]{xs[i+1], ys[i+1], zs[i+1]}
+                    ));
+                }
+            }
+        }
+
+        // Mirroring the packing or swapping container axes of equal size only moves the identical items among
+        // themselves, which the rule above sorts out, so both hold for one item without an identical twin. A
+        // mirrored packing pushed back to the normal patterns keeps it in its half, and swapping the axes keeps
+        // it on the patterns.
+        int a = unique();
+
+        if (a < 0) {
+            return constraints;
+        }
+
+        if (rules.contains(FitOptions.Symmetry.MIRROR)) {
+            constraints.add(model.scalar(new IntVar[]{xs[a], cW[a]}, new int[]{2, 1}, "<=", width));
+            constraints.add(model.scalar(new IntVar[]{ys[a], cH[a]}, new int[]{2, 1}, "<=", height));
+            constraints.add(model.scalar(new IntVar[]{zs[a], cL[a]}, new int[]{2, 1}, "<=", length));
+        }
+
+        if (rules.contains(FitOptions.Symmetry.AXES)) {
+            IntVar[] x = {xs[a], cW[a]};
+            IntVar[] y = {ys[a], cH[a]};
+            IntVar[] z = {zs[a], cL[a]};
+
+            if (width == height) {
+                constraints.add(model.lexLessEq(x, y));
+            }
+
+            if (height == length) {
+                constraints.add(model.lexLessEq(y, z));
+            } else if (width == length) {
+                constraints.add(model.lexLessEq(x, z));
+            }
+        }
+
+        return constraints;
+    }
+
+    // The biggest item with no identical one, -1 if none
+    private int unique() {
+        for (int i = 0; i < boxes.size(); i++) {
+            if ((i == 0 || !identical(boxes.get(i - 1), boxes.get(i))) &&
+                (i == boxes.size() - 1 || !identical(boxes.get(i), boxes.get(i + 1)))) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static boolean identical(Box a, Box b) {
+        return a.min() == b.min() && a.med() == b.med() && a.max() == b.max();
+    }
+
+    private IntVar position(String name, int[] patterns, int max) {
+        int index = Arrays.binarySearch(patterns, max);
+        int count = index >= 0 ? index + 1 : -index - 1;
+
+        if (count > MAX_ENUMERATED_POSITIONS || count > MAX_ENUMERATED_DENSITY * (max + 1)) {
+            return model.intVar(name, 0, max);
+        }
+
+        return model.intVar(name, Arrays.copyOf(patterns, count));
+    }
+
+    // The same positions as position, for a variable of the template
+    private Constraint positions(IntVar position, int[] patterns, int max) {
+        int index = Arrays.binarySearch(patterns, max);
+        int count = index >= 0 ? index + 1 : -index - 1;
+
+        if (count > MAX_ENUMERATED_POSITIONS || count > MAX_ENUMERATED_DENSITY * (max + 1)) {
+            return model.arithm(position, "<=", max);
+        }
+
+        return model.member(position, Arrays.copyOf(patterns, count));
+    }
+
+    private void postPairwiseNonOverlap() {
+        int n = xs.length;
+
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                // Relative position, i is left / under / behind j or the other way around
+                model.addClausesBoolOrArrayEqualTrue(new BoolVar[]{
+                    model.arithm(xs[i], "+", cW[i], "<=", xs[j]).reify(),
+                    model.arithm(xs[j], "+", cW[j], "<=", xs[i]).reify(),
+                    model.arithm(ys[i], "+", cH[i], "<=", ys[j]).reify(),
+                    model.arithm(ys[j], "+", cH[j], "<=", ys[i]).reify(),
+                    model.arithm(zs[i], "+", cL[i], "<=", zs[j]).reify(),
+                    model.arithm(zs[j], "+", cL[j], "<=", zs[i]).reify(),
+                });
+            }
+        }
+    }
+
+    // Item i of the model is item order[i] of the packing, expects a solution
+    void copyTo(Packing packing, int[] order) {
+        for (int i = 0; i < boxes.size(); i++) {
+            Rotation r = rotations(boxes.get(i))[rot[i].getValue()];
+            packing.place(order[i], xs[i].getValue(), ys[i].getValue(), zs[i].getValue(), r);
+        }
+    }
+
+    // Item i of the model is item order[i] of the hint, the ones past its end get none
+    void hint(Packing hint, int[] order) {
+        var solver = model.getSolver();
+        hinted = true;
+
+        for (int i = 0; i < boxes.size(); i++) {
+            int item = order[i];
+
+            if (item >= hint.size()) {
+                continue;
+            }
+
+            Box box = boxes.get(i);
+            Rotation[] rotations = rotations(box);
+
+            for (int r = 0; r < rotations.length; r++) {
+                if (box.width(rotations[r]) == hint.width(item) &&
+                    box.height(rotations[r]) == hint.height(item) &&
+                    box.length(rotations[r]) == hint.length(item)) {
+                    solver.addHint(rot[i], r);
+                    break;
+                }
+            }
+
+            solver.addHint(xs[i], hint.x(item));
+            solver.addHint(ys[i], hint.y(item));
+            solver.addHint(zs[i], hint.z(item));
+        }
+    }
+
+    // Item by item: orientation, then as far back, down and left as it goes
+    private AbstractStrategy<IntVar> placementSearch() {
+        int n = xs.length;
+        IntVar[] perItem = new IntVar[4 * n];
+
+        for (int i = 0; i < n; i++) {
+            perItem[4 * i] = rot[i];
+            perItem[4 * i + 1] = zs[i];
+            perItem[4 * i + 2] = ys[i];
+            perItem[4 * i + 3] = xs[i];
+        }
+
+        return Search.lastConflict(Search.inputOrderLBSearch(perItem));
+    }
+
+    /**
+     * Switches the search to one of {@value #SEARCH_CONFIGURATIONS} heuristics, configuration 0 keeps the
+     * search of the formulation. Past that the randomized configurations come back with a different seed.
+     */
+    void diversify(int configuration) {
+        var solver = model.getSolver();
+        IntVar[] positions = concat(xs, ys, zs);
+        IntVar[] decisions = concat(rot, positions);
+
+        model.setSeed(configuration);
+
+        switch (configuration % SEARCH_CONFIGURATIONS) {
+            case 0 -> {
+                if (configuration > 0) {
+                    solver.setSearch(Search.randomSearch(decisions, configuration));
+                    solver.setLubyRestart(50, new FailCounter(model, 0), 10_000);
+                }
+            }
+            // Orientation first, then bottom-left-back placement of the biggest items: in input order over the
+            // rotations followed by the positions, the same as a sequencer of the two without its raw types
+            case 1 -> solver.setSearch(Search.lastConflict(Search.inputOrderLBSearch(decisions)));
+            case 2 -> {
+                solver.setSearch(Search.domOverWDegSearch(decisions));
+                solver.setLubyRestart(100, new FailCounter(model, 0), 10_000);
+            }
+            case 3 -> {
+                solver.setSearch(Search.conflictHistorySearch(decisions));
+                solver.setGeometricalRestart(100, 1.2, new FailCounter(model, 0), 10_000);
+            }
+            case 4 -> solver.setSearch(Search.activityBasedSearch(decisions));
+            case 5 -> solver.setSearch(Search.lastConflict(Search.minDomLBSearch(decisions)));
+            default -> throw new IllegalStateException();
+        }
+    }
+
+    private static IntVar[] concat(IntVar[]... arrays) {
+        int size = 0;
+
+        for (var array : arrays) {
+            size += array.length;
+        }
+
+        IntVar[] result = new IntVar[size];
+        int offset = 0;
+
+        for (var array : arrays) {
+            System.arraycopy(array, 0, result, offset, array.length);
+            offset += array.length;
+        }
+
+        return result;
+    }
+}
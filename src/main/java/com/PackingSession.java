@@ -0,0 +1,101 @@
+package com;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Answers "does it still fit" as items are added one at a time to the same container, keeping the last
+ * placement that worked.
+ * <p>
+ * A new item first goes into a free extreme point of that placement, which costs about the same whatever
+ * the number of items already in. Only when there is none are all the items checked again through
+ * {@link Box#packInto(List, FitOptions)}, with the last placement as hints for the solver.
+ * <p>
+ * Not thread safe.
+ */
+public final class PackingSession {
+    private final Box container;
+    private final FitOptions options;
+
+    private final List<Box> items = new ArrayList<>();
+    private ItemStats stats = ItemStats.of(List.of());
+
+    // Item i is the i-th placed
+    private ExtremePoints space;
+
+    public PackingSession(Box container) {
+        this(container, FitOptions.defaults());
+    }
+
+    public PackingSession(Box container, FitOptions options) {
+        this.container = container;
+        this.options = options;
+
+        space = new ExtremePoints(container, 16);
+    }
+
+    /**
+     * Adds the item if it fits along with the ones already in, otherwise returns false and leaves the
+     * session as it was.
+     */
+    public boolean add(Box item) {
+        var newStats = stats.plus(item);
+
+        if (!container.fitsOneInOne(newStats) || container.volume() < newStats.totalVolume) {
+            return false;
+        }
+
+        // Extend the last placement
+        if (space.place(item)) {
+            items.add(item);
+            stats = newStats;
+            return true;
+        }
+
+        // Repack everything, starting the solver from where the items are now
+        var newItems = new ArrayList<>(items);
+        newItems.add(item);
+
+        var packing = new Packing(container, newItems);
+
+        if (!container.fit(newItems, newStats, options, packing, packing()).fits()) {
+            return false;
+        }
+
+        items.add(item);
+        stats = newStats;
+
+        space = new ExtremePoints(container, 2 * items.size());
+
+        for (int i = 0; i < packing.size(); i++) {
+            space.add(packing.x(i), packing.y(i), packing.z(i), items.get(i), packing.rotation(i));
+        }
+
+        return true;
+    }
+
+    public Box container() {
+        return container;
+    }
+
+    public List<Box> items() {
+        return List.copyOf(items);
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Where the items added so far are.
+     */
+    public Packing packing() {
+        var packing = new Packing(container, items);
+
+        for (int i = 0; i < items.size(); i++) {
+            packing.place(i, space.x(i), space.y(i), space.z(i), space.rotation(i));
+        }
+
+        return packing;
+    }
+}
@@ -0,0 +1,184 @@
+package com;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+
+/**
+ * diffN style non-overlap of n boxes in three dimensions with variable sizes, replacing the three reified
+ * precedences and the clause posted per pair.
+ * <p>
+ * A pair of boxes can be separated in six ways (i before j or j before i, on each axis), a way is still
+ * possible while the lower bounds allow it. No way left fails, exactly one way left gets enforced on the
+ * bounds of both boxes.
+ * <p>
+ * Only the pairs of the boxes whose bounds changed are filtered again, the events of a propagation are collected
+ * and filtered in one go. Choco does not wake a propagator on its own events, so the boxes it changes itself are
+ * queued the same way, down to a fixpoint.
+ */
+final class PropNonOverlap3D extends Propagator<IntVar> {
+    private static final int AXES = 3;
+
+    private final int n;
+
+    // Boxes left to filter against all the others, each queued at most once
+    private final int[] queue;
+    private final boolean[] queued;
+    private int queueSize;
+
+    PropNonOverlap3D(IntVar[] xs, IntVar[] ys, IntVar[] zs, IntVar[] ws, IntVar[] hs, IntVar[] ls) {
+        super(concat(xs, ys, zs, ws, hs, ls), PropagatorPriority.QUADRATIC, true);
+        n = xs.length;
+        queue = new int[n];
+        queued = new boolean[n];
+    }
+
+    private IntVar pos(int axis, int i) {
+        return vars[axis * n + i];
+    }
+
+    private IntVar size(int axis, int i) {
+        return vars[(AXES + axis) * n + i];
+    }
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        return IntEventType.boundAndInst();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (PropagatorEventType.isFullPropagation(evtmask)) {
+            for (int i = 0; i < n; i++) {
+                enqueue(i);
+            }
+        }
+
+        try {
+            while (queueSize > 0) {
+                int i = queue[--queueSize];
+                queued[i] = false;
+
+                for (int j = 0; j < n; j++) {
+                    if (j != i) {
+                        filterPair(i, j);
+                    }
+                }
+            }
+        } finally {
+            // On a failure the search backtracks, the boxes left are of no use to it
+            while (queueSize > 0) {
+                queued[queue[--queueSize]] = false;
+            }
+        }
+    }
+
+    @Override
+    public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+        enqueue(idxVarInProp % n);
+        forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+    }
+
+    private void enqueue(int i) {
+        if (!queued[i]) {
+            queued[i] = true;
+            queue[queueSize++] = i;
+        }
+    }
+
+    private void filterPair(int i, int j) throws ContradictionException {
+        int options = 0;
+        int lastAxis = -1;
+        boolean lastIFirst = false;
+
+        for (int axis = 0; axis < AXES; axis++) {
+            if (canPrecede(axis, i, j)) {
+                options++;
+                lastAxis = axis;
+                lastIFirst = true;
+            }
+
+            if (canPrecede(axis, j, i)) {
+                options++;
+                lastAxis = axis;
+                lastIFirst = false;
+            }
+
+            if (options > 1) {
+                return;
+            }
+        }
+
+        if (options == 0) {
+            fails();
+        }
+
+        if (lastIFirst) {
+            precede(lastAxis, i, j);
+        } else {
+            precede(lastAxis, j, i);
+        }
+    }
+
+    private boolean canPrecede(int axis, int a, int b) {
+        return pos(axis, a).getLB() + size(axis, a).getLB() <= pos(axis, b).getUB();
+    }
+
+    // pos(a) + size(a) <= pos(b), queueing the boxes it changes
+    private void precede(int axis, int a, int b) throws ContradictionException {
+        IntVar posA = pos(axis, a);
+        IntVar sizeA = size(axis, a);
+        IntVar posB = pos(axis, b);
+
+        if (posB.updateLowerBound(posA.getLB() + sizeA.getLB(), this)) {
+            enqueue(b);
+        }
+
+        boolean changedA = posA.updateUpperBound(posB.getUB() - sizeA.getLB(), this);
+        changedA |= sizeA.updateUpperBound(posB.getUB() - posA.getLB(), this);
+
+        if (changedA) {
+            enqueue(a);
+        }
+    }
+
+    @Override
+    public ESat isEntailed() {
+        boolean undecided = false;
+
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                boolean separated = false;
+                boolean separable = false;
+
+                for (int axis = 0; axis < AXES && !separated; axis++) {
+                    separated = pos(axis, i).getUB() + size(axis, i).getUB() <= pos(axis, j).getLB()
+                        || pos(axis, j).getUB() + size(axis, j).getUB() <= pos(axis, i).getLB();
+                    separable |= canPrecede(axis, i, j) || canPrecede(axis, j, i);
+                }
+
+                if (!separable) {
+                    return ESat.FALSE;
+                }
+
+                undecided |= !separated;
+            }
+        }
+
+        return undecided ? ESat.UNDEFINED : ESat.TRUE;
+    }
+
+    private static IntVar[] concat(IntVar[]... arrays) {
+        IntVar[] result = new IntVar[arrays.length * arrays[0].length];
+
+        for (int k = 0; k < arrays.length; k++) {
+            System.arraycopy(arrays[k], 0, result, k * arrays[0].length, arrays[k].length);
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,233 @@
+package com;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.Box.Rotation;
+import static com.Box.Verdict.*;
+
+/**
+ * Exact depth first search for orders of a few items, cheaper than building a Choco model for them.
+ * <p>
+ * The items go in one by one, biggest first, every distinct rotation of each at every position of the
+ * {@link NormalPatterns normal patterns} that does not overlap the items already in, back, then down, then left
+ * first. Normal patterns hold a placement of any packing, so running out of positions proves the items do not fit.
+ * An overlap skips straight to the next position past the item in the way, identical items are kept in
+ * increasing position order and the first item only tries the back, lower left half of the container, which
+ * a mirrored packing can always be pushed into when it has no identical twin.
+ * <p>
+ * All the state is in primitive arrays allocated once per instance, a node allocates nothing. The search gives
+ * up past a budget of positions tried, which leaves the instance to the model.
+ */
+final class SmallPacker {
+    static final int MAX_ITEMS = 10;
+
+    // Positions tried, a fraction of a millisecond: the instances decided within it are the ones the model takes
+    // longest to build for compared to its search, past it the propagation of the model pays off
+    private static final long MAX_WORK = 10_000;
+
+    // Clock checks
+    private static final int CHECK_EVERY = 1 << 10;
+
+    private final int width;
+    private final int height;
+    private final int length;
+    private final int n;
+
+    // Item i in rotation r is dims[3 * (6 * i + r) + axis], rotations[i][r] of the box
+    private final int[] dims;
+    private final Rotation[][] rotations;
+
+    // Previous item identical to item i, -1 if none
+    private final int[] twin;
+
+    private final int[] patterns;
+
+    // Item i is at (x[i], y[i], z[i]) turned by rotation r[i]
+    private final int[] x;
+    private final int[] y;
+    private final int[] z;
+    private final int[] r;
+
+    private long work;
+    private long nodes;
+    private long fails;
+    private long backtracks;
+    private long deadline;
+    private boolean stopped;
+
+    // Items expected sorted biggest first
+    SmallPacker(Box container, List<Box> boxes) {
+        width = container.width();
+        height = container.height();
+        length = container.length();
+        n = boxes.size();
+
+        dims = new int[3 * 6 * n];
+        rotations = new Rotation[n][];
+        twin = new int[n];
+
+        for (int i = 0; i < n; i++) {
+            Box box = boxes.get(i);
+            rotations[i] = box.getDistinctRotations();
+
+            for (int k = 0; k < rotations[i].length; k++) {
+                int at = 3 * (6 * i + k);
+                dims[at] = box.width(rotations[i][k]);
+                dims[at + 1] = box.height(rotations[i][k]);
+                dims[at + 2] = box.length(rotations[i][k]);
+            }
+
+            twin[i] = i > 0 && box.equals(boxes.get(i - 1)) ? i - 1 : -1;
+        }
+
+        patterns = NormalPatterns.subsetSums(Math.max(width, Math.max(height, length)), boxes);
+
+        x = new int[n];
+        y = new int[n];
+        z = new int[n];
+        r = new int[n];
+    }
+
+    /**
+     * Null when the position budget runs out, UNKNOWN when the time limit does. On a fit, item i goes to item order[i]
+     * of packing, unless it is null.
+     */
+    FitResult solve(FitOptions options, Packing packing, int[] order) {
+        long start = System.nanoTime();
+        deadline = options.hasTimeLimit() ? start + options.limitMs() * 1_000_000L : Long.MAX_VALUE;
+
+        boolean fits = place(0);
+        long timeNanos = System.nanoTime() - start;
+
+        if (stopped && work > MAX_WORK) {
+            return null;
+        }
+
+        if (fits && packing != null) {
+            for (int i = 0; i < n; i++) {
+                packing.place(order[i], x[i], y[i], z[i], rotations[i][r[i]]);
+            }
+        }
+
+        var verdict = fits ? FITS : stopped ? UNKNOWN : DOES_NOT_FIT;
+        return FitResult.searched(verdict, nodes, fails, backtracks, timeNanos);
+    }
+
+    private boolean place(int i) {
+        if (i == n) {
+            return true;
+        }
+
+        for (int k = 0; k < rotations[i].length; k++) {
+            int at = 3 * (6 * i + k);
+            int w = dims[at];
+            int h = dims[at + 1];
+            int l = dims[at + 2];
+
+            int maxX = width - w;
+            int maxY = height - h;
+            int maxZ = length - l;
+
+            if (maxX < 0 || maxY < 0 || maxZ < 0) {
+                continue;
+            }
+
+            // Mirror symmetry, see the class comment
+            if (i == 0 && (n == 1 || twin[1] != 0)) {
+                maxX /= 2;
+                maxY /= 2;
+                maxZ /= 2;
+            }
+
+            r[i] = k;
+
+            for (int pz = 0; pz < patterns.length && patterns[pz] <= maxZ; pz++) {
+                for (int py = 0; py < patterns.length && patterns[py] <= maxY; py++) {
+                    int px = 0;
+
+                    while (px < patterns.length && patterns[px] <= maxX) {
+                        if (++work % CHECK_EVERY == 0 && (work > MAX_WORK || System.nanoTime() - deadline >= 0)) {
+                            stopped = true;
+                        }
+
+                        if (stopped) {
+                            return false;
+                        }
+
+                        x[i] = patterns[px];
+                        y[i] = patterns[py];
+                        z[i] = patterns[pz];
+
+                        int blocking = blocking(i, w, h, l);
+
+                        if (blocking >= 0) {
+                            px = next(px, x[blocking] + width(blocking));
+                            continue;
+                        }
+
+                        if (twin[i] >= 0 && before(i, twin[i])) {
+                            px++;
+                            continue;
+                        }
+
+                        nodes++;
+
+                        if (place(i + 1)) {
+                            return true;
+                        }
+
+                        if (stopped) {
+                            return false;
+                        }
+
+                        backtracks++;
+                        px++;
+                    }
+                }
+            }
+        }
+
+        // No position left for item i
+        fails++;
+        return false;
+    }
+
+    // An item already in that item i overlaps, -1 if none
+    private int blocking(int i, int w, int h, int l) {
+        for (int j = 0; j < i; j++) {
+            int at = 3 * (6 * j + r[j]);
+
+            if (x[i] < x[j] + dims[at] && x[j] < x[i] + w &&
+                y[i] < y[j] + dims[at + 1] && y[j] < y[i] + h &&
+                z[i] < z[j] + dims[at + 2] && z[j] < z[i] + l) {
+                return j;
+            }
+        }
+
+        return -1;
+    }
+
+    private int width(int j) {
+        return dims[3 * (6 * j + r[j])];
+    }
+
+    // Position of item i comes before the one of item j, back, then down, then left first
+    private boolean before(int i, int j) {
+        if (z[i] != z[j]) {
+            return z[i] < z[j];
+        }
+
+        if (y[i] != y[j]) {
+            return y[i] < y[j];
+        }
+
+        return x[i] < x[j];
+    }
+
+    // Index of the first pattern from value on
+    private int next(int from, int value) {
+        int index = Arrays.binarySearch(patterns, from, patterns.length, value);
+        return index >= 0 ? index : -index - 1;
+    }
+}
@@ -0,0 +1,29 @@
+package com;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// One per search of a few items that decided the fit, see SmallPacker, the model is never built for them
+@Name("com.boxy.SmallSearch")
+@Label("Fit Small Search")
+@Category("Boxy")
+@Description("A direct search deciding whether a few items fit in a container")
+final class SmallSearchEvent extends Event {
+    @Label("Items")
+    int items;
+
+    @Label("Verdict")
+    String verdict;
+
+    @Label("Nodes")
+    long nodes;
+
+    @Label("Fails")
+    long fails;
+
+    @Label("Backtracks")
+    long backtracks;
+}
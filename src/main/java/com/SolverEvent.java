@@ -0,0 +1,35 @@
+package com;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// One per solver run of the pipeline, costs next to nothing unless a recording enables it
+@Name("com.boxy.Solver")
+@Label("Fit Solver")
+@Category("Boxy")
+@Description("A solver run deciding whether items fit in a container")
+final class SolverEvent extends Event {
+    @Label("Items")
+    int items;
+
+    @Label("Portfolio Threads")
+    int portfolioThreads;
+
+    @Label("Formulation")
+    String formulation;
+
+    @Label("Verdict")
+    String verdict;
+
+    @Label("Nodes")
+    long nodes;
+
+    @Label("Fails")
+    long fails;
+
+    @Label("Backtracks")
+    long backtracks;
+}
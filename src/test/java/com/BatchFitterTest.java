@@ -0,0 +1,121 @@
+package com;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.Box.Verdict.*;
+import static com.FitResult.Stage;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchFitterTest {
+
+    @Test
+    void testSameAnswersAsBoxes() {
+        var random = new Random(42);
+        var fitter = new BatchFitter();
+
+        for (int run = 0; run < 500; run++) {
+            int[] container = {1 + random.nextInt(8), 1 + random.nextInt(8), 1 + random.nextInt(8)};
+            int count = 1 + random.nextInt(6);
+            int[] dimensions = new int[3 * count];
+            List<Box> items = new ArrayList<>();
+
+            for (int i = 0; i < count; i++) {
+                dimensions[3 * i] = 1 + random.nextInt(4);
+                dimensions[3 * i + 1] = 1 + random.nextInt(4);
+                dimensions[3 * i + 2] = 1 + random.nextInt(4);
+                items.add(new Box(dimensions[3 * i], dimensions[3 * i + 1], dimensions[3 * i + 2]));
+            }
+
+            var expected = new Box(container[0], container[1], container[2]).fit(items);
+            var actual = fitter.fit(container[0], container[1], container[2], dimensions, 0, count);
+
+            assertEquals(expected.verdict(), actual.verdict(), () -> items + " in " + List.of(container));
+
+            // The solver may see the items turned, whichever tier comes after the quick ones decides the same
+            if (actual.stage().compareTo(Stage.MULTISTACK) <= 0) {
+                assertEquals(expected.stage(), actual.stage());
+            }
+        }
+    }
+
+    @Test
+    void testInputForms() {
+        var fitter = new BatchFitter();
+
+        // The solver's no fit instance, after two leading items that are not part of it
+        int[] dimensions = {9, 9, 9, 9, 9, 9, 1, 1, 1, 2, 2, 2, 3, 3, 1, 3, 1, 1};
+        long[] packed = new long[6];
+        var buffer = ByteBuffer.allocateDirect(4 + 4 * dimensions.length).order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.putInt(-1);
+
+        for (int i = 0; i < 6; i++) {
+            packed[i] = BatchFitter.pack(dimensions[3 * i], dimensions[3 * i + 1], dimensions[3 * i + 2]);
+            buffer.putInt(dimensions[3 * i]).putInt(dimensions[3 * i + 1]).putInt(dimensions[3 * i + 2]);
+        }
+
+        buffer.flip().position(4);
+
+        assertEquals(DOES_NOT_FIT, fitter.fit(3, 4, 2, dimensions, 2, 4).verdict());
+        assertEquals(DOES_NOT_FIT, fitter.fit(3, 4, 2, packed, 2, 4).verdict());
+        assertEquals(DOES_NOT_FIT, fitter.fit(3, 4, 2, buffer.slice(28, 48).order(ByteOrder.LITTLE_ENDIAN))
+                                         .verdict());
+        assertEquals(4, buffer.position());
+
+        assertEquals(Stage.DOMINANCE, fitter.fit(3, 4, 2, buffer).stage());
+        assertEquals(Stage.MIN_STACK, fitter.fit(3, 4, 2, packed, 2, 1).stage());
+        assertEquals(Stage.MIN_STACK, fitter.fit(3, 4, 2, dimensions, 0, 0).stage());
+    }
+
+    @Test
+    void testGrowsForMoreItems() {
+        var fitter = new BatchFitter();
+        int[] dimensions = new int[3 * 101];
+        Arrays.fill(dimensions, 1);
+
+        assertEquals(Stage.CUBE_SLICE, fitter.fit(10, 10, 1, dimensions, 0, 100).stage());
+        assertEquals(Stage.VOLUME, fitter.fit(10, 10, 1, dimensions, 0, 101).stage());
+        assertEquals(Stage.MIN_STACK, fitter.fit(10, 10, 1, dimensions, 0, 1).stage());
+    }
+
+    @Test
+    void testQuickTiersDoNotAllocate() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var fitter = new BatchFitter();
+
+        int[] multistack = {5, 5, 2, 5, 5, 2, 5, 5, 2, 5, 5, 2};
+        long[] volume = {BatchFitter.pack(3, 3, 3), BatchFitter.pack(1, 1, 1)};
+
+        for (int run = 0; run < 10_000; run++) {
+            fitter.fit(10, 10, 4, multistack, 0, 4);
+            fitter.fit(3, 3, 3, volume, 0, 2);
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+
+        for (int run = 0; run < 10_000; run++) {
+            fitter.fit(10, 10, 4, multistack, 0, 4);
+            fitter.fit(3, 3, 3, volume, 0, 2);
+        }
+
+        // Leaves room for the measurement itself
+        assertTrue(threads.getCurrentThreadAllocatedBytes() - before < 1024);
+    }
+
+    @Test
+    void testRejectsBadInput() {
+        var fitter = new BatchFitter();
+
+        assertThrows(IllegalArgumentException.class, () -> fitter.fit(3, 3, 3, new int[]{1, 0, 1}, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> fitter.fit(3, 3, 3, ByteBuffer.allocate(8)));
+        assertThrows(IllegalArgumentException.class, () -> BatchFitter.pack(1 << 21, 1, 1));
+    }
+}
@@ -0,0 +1,134 @@
+package com;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchRunnerTest {
+
+    private static final FitOptions OPTIONS = FitOptions.defaults().withTimeLimit(1_000);
+
+    @Test
+    void testCsvAnswersInInputOrder() throws Exception {
+        String input = """
+            id,W,H,L,w1,h1,l1
+            # volume, then the solver, then min stack
+            a,3,3,3,3,3,3,1,1,1
+            b,3,4,2,1,1,1,2,2,2,3,3,1,3,1,1
+            c,10,5,5,5,5,1,5,5,1
+            """;
+
+        assertEquals("""
+            a,DOES_NOT_FIT,VOLUME
+            b,DOES_NOT_FIT,SMALL_SEARCH
+            c,FITS,MIN_STACK
+            """, run(input, BatchRunner.Format.CSV, 1));
+    }
+
+    @Test
+    void testJsonl() throws Exception {
+        String input = """
+            {"id": "a", "container": [3, 3, 3], "items": [[3, 3, 3], [1, 1, 1]]}
+            {"items": [[5, 5, 1], [5, 5, 1]], "note": {"x": [1, "]"]}, "container": [10, 5, 5], "id": 7}
+            """;
+
+        assertEquals("""
+            {"id":"a","verdict":"DOES_NOT_FIT","stage":"VOLUME"}
+            {"id":"7","verdict":"FITS","stage":"MIN_STACK"}
+            """, run(input, BatchRunner.Format.JSONL, 2));
+    }
+
+    @Test
+    void testOnlyTheSolverStageIsLeftToTheSolverWorkers() throws Exception {
+        String input = """
+            # lower bound, extreme points, then the solver
+            a,5,5,5,3,3,3,3,3,3,3,3,3
+            b,3,3,3,3,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,3,1,1,1,1,2,1,1,1,2,2,1,1,1,3,1,1,2,1,1,2,1
+            c,4,5,4,2,3,1,1,1,2,1,1,1,3,2,2,3,2,1,2,3,2,1,2,2,3,3,2,1,3,2,2,2,1,3,3,1
+            """;
+
+        FitMetrics.reset();
+        FitMetrics.enable();
+
+        try {
+            assertEquals("""
+                a,DOES_NOT_FIT,LOWER_BOUND_L1
+                b,FITS,EXTREME_POINT
+                c,FITS,SOLVER
+                """, run(input, BatchRunner.Format.CSV, 3));
+
+            // Every record once, the one going through both pools included
+            assertEquals(1, FitMetrics.count(FitResult.Stage.LOWER_BOUND_L1));
+            assertEquals(1, FitMetrics.count(FitResult.Stage.EXTREME_POINT));
+            assertEquals(1, FitMetrics.count(FitResult.Stage.SOLVER));
+            assertEquals(0, FitMetrics.count(FitResult.Stage.SOLVER_SKIPPED));
+        } finally {
+            FitMetrics.disable();
+            FitMetrics.reset();
+        }
+    }
+
+    @Test
+    void testBadRecordsDoNotStopTheRun() throws Exception {
+        String input = """
+            a,3,3,3,3,3
+            b,3,3,x,1,1,1
+            c,3,3,3,1,1,1
+            {"id": "d"}
+            """;
+
+        assertEquals("""
+            ,ERROR,"record 1: Expected an id, three container and three dimensions per item"
+            ,ERROR,"record 2: Not a dimension: x"
+            c,FITS,MIN_STACK
+            ,ERROR,"record 4: Expected an id, three container and three dimensions per item"
+            """, run(input, BatchRunner.Format.CSV, 1));
+    }
+
+    @Test
+    void testAgreesWithFitThroughASmallWindow() throws Exception {
+        var random = new Random(18);
+        var input = new StringBuilder();
+        var expected = new StringBuilder();
+
+        for (int r = 0; r < 300; r++) {
+            var container = new Box(4 + random.nextInt(5), 4 + random.nextInt(5), 4 + random.nextInt(5));
+            input.append(r).append(',').append(container.width()).append(',').append(container.height())
+                .append(',').append(container.length());
+
+            List<Box> items = new ArrayList<>();
+
+            for (int i = 0; i < 1 + random.nextInt(5); i++) {
+                var item = new Box(1 + random.nextInt(4), 1 + random.nextInt(4), 1 + random.nextInt(4));
+                items.add(item);
+                input.append(',').append(item.width()).append(',').append(item.height()).append(',')
+                    .append(item.length());
+            }
+
+            var result = container.fit(items, OPTIONS);
+            input.append('\n');
+            expected.append(r).append(',').append(result.verdict()).append(',').append(result.stage()).append('\n');
+        }
+
+        assertEquals(expected.toString(), run(input.toString(), BatchRunner.Format.CSV, 3));
+    }
+
+    @Test
+    void testBadArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchRunner(OPTIONS, 0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new BatchRunner(OPTIONS, 1, 1, 0));
+    }
+
+    private static String run(String input, BatchRunner.Format format, int window) throws Exception {
+        var out = new StringWriter();
+        new BatchRunner(OPTIONS, 2, 2, window).run(new BufferedReader(new StringReader(input)), out, format);
+        return out.toString();
+    }
+}
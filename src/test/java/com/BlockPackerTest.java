@@ -0,0 +1,92 @@
+package com;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static com.FitResult.Stage;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockPackerTest {
+
+    @Test
+    void testGuillotineBeatsAnyGrid() {
+        // 10 dominoes in either direction alone, 12 with a strip turned the other way
+        var blocks = BlockCapacity.of(new Box(5, 5, 1), new Box(2, 1, 1), 1_000_000);
+
+        assertNotNull(blocks);
+        assertEquals(12, blocks.capacity());
+        assertEquals(4, blocks.shortest(0, 10));
+        assertEquals(-1, blocks.shortest(0, 13));
+    }
+
+    @Test
+    void testLargeOrderOfOneCarton() {
+        var container = new Box(30, 40, 25);
+        var result = container.fitGroups(List.of(new ItemGroup(new Box(3, 4, 5), 300)));
+
+        assertTrue(result.fits());
+        assertEquals(Stage.BLOCK, result.stage());
+
+        var packing = container.packInto(ItemGroup.expand(List.of(new ItemGroup(new Box(5, 3, 4), 300))));
+
+        assertTrue(packing.isPresent());
+        PackingTest.assertValid(packing.get());
+    }
+
+    @Test
+    void testFillsWithTurnedStrip() {
+        var container = new Box(5, 5, 1);
+        var packing = container.packInto(Collections.nCopies(12, new Box(1, 2, 1)));
+
+        assertTrue(packing.isPresent());
+        PackingTest.assertValid(packing.get());
+    }
+
+    @Test
+    void testKindsGetTheirOwnSlab() {
+        // Two layers of 2 x 2 plates, then a layer of 3 x 3 cubes on top
+        var container = new Box(10, 10, 7);
+        List<Box> items = new ArrayList<>();
+
+        items.addAll(Collections.nCopies(8, new Box(5, 5, 2)));
+        items.addAll(Collections.nCopies(9, new Box(3, 3, 3)));
+        Collections.shuffle(items, new Random(7));
+
+        var packing = new Packing(container, items);
+
+        assertTrue(BlockPacker.pack(container, items, packing));
+        PackingTest.assertValid(packing);
+    }
+
+    @Test
+    void testFewCopiesSkipTheBlocks() {
+        // No grid holds 7 dominoes, a guillotine cut does, but not for so few copies
+        var container = new Box(5, 3, 1);
+        var domino = new Box(2, 1, 1);
+
+        assertEquals(7, BlockCapacity.of(container, domino, 1_000_000).capacity());
+        assertFalse(BlockPacker.pack(container, Collections.nCopies(7, domino), null));
+
+        // Nor for a few copies of each of several kinds, two rods across and four dominoes in a guillotine block
+        List<Box> items = new ArrayList<>(Collections.nCopies(2, new Box(3, 1, 1)));
+        items.addAll(Collections.nCopies(4, new Box(2, 1, 1)));
+
+        assertFalse(BlockPacker.pack(new Box(3, 5, 1), items, null));
+        assertTrue(new Box(3, 5, 1).canTheseFitIn(items));
+    }
+
+    @Test
+    void testTooManyKinds() {
+        List<Box> items = new ArrayList<>();
+
+        for (int i = 1; i <= BlockPacker.MAX_KINDS + 1; i++) {
+            items.add(new Box(i, 1, 1));
+        }
+
+        assertFalse(BlockPacker.pack(new Box(100, 100, 100), items, null));
+    }
+}
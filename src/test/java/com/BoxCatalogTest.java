@@ -0,0 +1,59 @@
+package com;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoxCatalogTest {
+
+    private static final BoxCatalog CATALOG = new BoxCatalog(List.of(
+        new Box(20, 20, 20), new Box(5, 5, 5), new Box(10, 5, 5), new Box(6, 4, 4), new Box(10, 10, 10)
+    ));
+
+    @Test
+    void testContainersAreSortedByVolume() {
+        assertEquals(
+            List.of(new Box(6, 4, 4), new Box(5, 5, 5), new Box(10, 5, 5), new Box(10, 10, 10), new Box(20, 20, 20)),
+            CATALOG.containers());
+    }
+
+    @Test
+    void testSmallestContainerIsPicked() {
+        List<Box> items = List.of(new Box(4, 4, 2), new Box(4, 2, 4));
+
+        assertEquals(Optional.of(new Box(6, 4, 4)), CATALOG.smallestThatFits(items));
+    }
+
+    @Test
+    void testContainersWithEnoughVolumeButWrongShapeAreSkipped() {
+        // Three 3-cubes have the volume for 6x4x4 and for a 5-cube but need to be lined up
+        List<Box> items = List.of(new Box(3, 3, 3), new Box(3, 3, 3), new Box(3, 3, 3));
+
+        assertEquals(Optional.of(new Box(10, 5, 5)), CATALOG.smallestThatFits(items));
+    }
+
+    @Test
+    void testNothingFits() {
+        List<Box> items = List.of(new Box(21, 1, 1));
+
+        assertEquals(Optional.empty(), CATALOG.smallestThatFits(items));
+    }
+
+    @Test
+    void testAgreesWithCanTheseFitIn() {
+        List<Box> items = List.of(new Box(5, 5, 5), new Box(5, 5, 5));
+        Optional<Box> smallest = CATALOG.smallestThatFits(items, 1_000);
+
+        assertTrue(smallest.isPresent());
+        assertTrue(smallest.get().canTheseFitIn(items));
+
+        for (var container : CATALOG.containers()) {
+            if (container.compareTo(smallest.get()) < 0) {
+                assertFalse(container.canTheseFitIn(items));
+            }
+        }
+    }
+}
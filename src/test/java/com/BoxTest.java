@@ -8,6 +8,9 @@ import static org.junit.jupiter.api.Assertions.*;
 
 class BoxTest {
 
+    private static final FitOptions NON_OVERLAP_3D =
+        FitOptions.defaults().withFormulation(FitOptions.Formulation.NON_OVERLAP_3D);
+
     @Test
     void testSimpleFit() {
         Box container = new Box(5, 5, 5);
@@ -228,7 +231,7 @@ class BoxTest {
     }
 
     @Test
-    void testNoFit() {
+    void testExactFitWithSlab() {
         Box container = new Box(3, 3, 3);
 
         List<Box> items = List.of(
@@ -238,7 +241,123 @@ class BoxTest {
             new Box(1, 2, 1), new Box(1, 2, 1)
         );
 
+        assertTrue(container.canTheseFitIn(items));
+    }
+
+    @Test
+    void testNoFit() {
+        Box container = new Box(3, 4, 2);
+
+        // Passes every bound, the cube is always in the way of the 3x3 plate
+        List<Box> items = List.of(
+            new Box(1, 1, 1), new Box(2, 2, 2), new Box(3, 3, 1), new Box(3, 1, 1)
+        );
+
         assertFalse(container.canTheseFitIn(items));
     }
 
-}
\ No newline at end of file
+    @Test
+    void testPortfolioExactFit() {
+        Box container = new Box(3, 3, 3);
+
+        List<Box> items = List.of(
+            new Box(3, 1, 1), new Box(1, 1, 1), new Box(1, 1, 1), new Box(1, 1, 1),
+            new Box(1, 1, 1), new Box(1, 1, 1), new Box(1, 1, 3), new Box(1, 1, 1),
+            new Box(1, 2, 1), new Box(1, 1, 2), new Box(2, 1, 1), new Box(1, 3, 1),
+            new Box(1, 2, 1), new Box(1, 2, 1)
+        );
+
+        assertTrue(container.canTheseFitIn(items, FitOptions.defaults().withPortfolio(4)));
+    }
+
+    @Test
+    void testPortfolioFitPastTheHeuristic() {
+        Box container = new Box(3, 4, 3);
+
+        List<Box> items = List.of(
+            new Box(2, 2, 1), new Box(2, 1, 2), new Box(3, 3, 1),
+            new Box(3, 1, 2), new Box(3, 1, 2), new Box(3, 1, 2)
+        );
+
+        assertTrue(container.canTheseFitIn(items, FitOptions.defaults().withPortfolio(4)));
+    }
+
+    @Test
+    void testPortfolioNoFit() {
+        Box container = new Box(3, 4, 2);
+
+        List<Box> items = List.of(
+            new Box(1, 1, 1), new Box(2, 2, 2), new Box(3, 3, 1), new Box(3, 1, 1)
+        );
+
+        assertFalse(container.canTheseFitIn(items, FitOptions.defaults().withPortfolio(4).withTimeLimit(60_000)));
+    }
+
+    @Test
+    void testPortfolioWithMoreThreadsThanConfigurations() {
+        Box container = new Box(6, 4, 4);
+
+        List<Box> items = List.of(new Box(4, 4, 3), new Box(4, 2, 4));
+
+        assertTrue(container.canTheseFitIn(items, FitOptions.defaults().withPortfolio(8)));
+    }
+
+    @Test
+    void testNonOverlap3DTightFitWithRotation() {
+        Box container = new Box(6, 4, 4);
+
+        List<Box> items = List.of(new Box(4, 4, 3), new Box(4, 2, 4));
+
+        assertTrue(container.canTheseFitIn(items, NON_OVERLAP_3D));
+    }
+
+    @Test
+    void testNonOverlap3DThreeCubesDontFit() {
+        Box container = new Box(5, 5, 5);
+
+        List<Box> items = List.of(new Box(3, 3, 3), new Box(3, 3, 3), new Box(3, 3, 3));
+
+        assertFalse(container.canTheseFitIn(items, NON_OVERLAP_3D));
+    }
+
+    @Test
+    void testNonOverlap3DExactFit() {
+        Box container = new Box(3, 3, 3);
+
+        List<Box> items = List.of(
+            new Box(3, 1, 1), new Box(1, 1, 1), new Box(1, 1, 1), new Box(1, 1, 1),
+            new Box(1, 1, 1), new Box(1, 1, 1), new Box(1, 1, 3), new Box(1, 1, 1),
+            new Box(1, 2, 1), new Box(1, 1, 2), new Box(2, 1, 1), new Box(1, 3, 1),
+            new Box(1, 2, 1), new Box(1, 2, 1)
+        );
+
+        assertTrue(container.canTheseFitIn(items, NON_OVERLAP_3D));
+    }
+
+    @Test
+    void testNonOverlap3D20VariantBoxesFitIn20x20x20() {
+        Box container = new Box(20, 20, 20);
+
+        List<Box> items = List.of(
+            new Box(7, 7, 6), new Box(7, 6, 7), new Box(6, 7, 7), new Box(6, 6, 6),
+            new Box(5, 7, 7), new Box(7, 5, 7), new Box(7, 5, 7), new Box(7, 7, 5),
+            new Box(5, 4, 7), new Box(6, 7, 5), new Box(6, 5, 7), new Box(7, 5, 5),
+            new Box(6, 6, 7), new Box(7, 7, 7), new Box(7, 7, 7), new Box(7, 7, 7),
+            new Box(7, 7, 7), new Box(7, 7, 7), new Box(7, 7, 7), new Box(7, 7, 7)
+        );
+
+        assertTrue(container.canTheseFitIn(items, NON_OVERLAP_3D));
+    }
+
+    @Test
+    void testNonOverlap3DFitPastTheHeuristic() {
+        Box container = new Box(3, 4, 3);
+
+        List<Box> items = List.of(
+            new Box(2, 2, 1), new Box(2, 1, 2), new Box(3, 3, 1),
+            new Box(3, 1, 2), new Box(3, 1, 2), new Box(3, 1, 2)
+        );
+
+        assertTrue(container.canTheseFitIn(items, NON_OVERLAP_3D));
+    }
+}
@@ -0,0 +1,60 @@
+package com;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContainerIndexTest {
+
+    @Test
+    void testCandidatesComeInVolumeOrder() {
+        var index = new ContainerIndex(List.of(
+            new Box(20, 20, 20), new Box(5, 5, 5), new Box(10, 5, 5), new Box(6, 4, 4), new Box(10, 10, 10)
+        ));
+
+        assertEquals(List.of(new Box(10, 5, 5), new Box(10, 10, 10), new Box(20, 20, 20)),
+            index.candidates(List.of(new Box(2, 2, 7))));
+        assertEquals(List.of(new Box(10, 10, 10), new Box(20, 20, 20)),
+            index.candidates(List.of(new Box(5, 5, 5), new Box(5, 5, 5), new Box(5, 5, 5))));
+        assertEquals(List.of(), index.candidates(List.of(new Box(21, 1, 1))));
+    }
+
+    @Test
+    void testEmptyIndex() {
+        assertEquals(List.of(), new ContainerIndex(List.of()).candidates(1, 1, 1, 1));
+    }
+
+    @Test
+    void testAgreesWithLinearScan() {
+        var random = new Random(17);
+        List<Box> containers = new ArrayList<>();
+
+        for (int i = 0; i < 2_000; i++) {
+            containers.add(new Box(1 + random.nextInt(100), 1 + random.nextInt(100), 1 + random.nextInt(100)));
+        }
+
+        var index = new ContainerIndex(containers);
+        List<Box> sorted = index.containers();
+
+        for (int q = 0; q < 500; q++) {
+            int[] dims = {1 + random.nextInt(100), 1 + random.nextInt(100), 1 + random.nextInt(100)};
+            Arrays.sort(dims);
+            long volume = (long) random.nextInt(1_000_000);
+
+            List<Box> expected = new ArrayList<>();
+
+            for (var container : sorted) {
+                if (container.dominates(new Box(dims[0], dims[1], dims[2])) && container.volume() >= volume) {
+                    expected.add(container);
+                }
+            }
+
+            assertEquals(expected, index.candidates(dims[0], dims[1], dims[2], volume));
+        }
+    }
+}
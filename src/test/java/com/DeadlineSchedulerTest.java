@@ -0,0 +1,127 @@
+package com;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static com.Box.Verdict.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineSchedulerTest {
+
+    @Test
+    void testResultsInQueryOrder() {
+        var queries = List.of(
+            new FitQuery(new Box(3, 3, 3), List.of(new Box(3, 3, 3), new Box(1, 1, 1))),
+            new FitQuery(new Box(3, 4, 2), List.of(new Box(1, 1, 1), new Box(2, 2, 2), new Box(3, 3, 1),
+                new Box(3, 1, 1))),
+            new FitQuery(new Box(10, 5, 5), List.of(new Box(5, 5, 1), new Box(5, 5, 1)))
+        );
+
+        var results = new DeadlineScheduler(FitOptions.defaults(), 1).fitAll(queries, 5_000);
+
+        assertEquals(FitResult.doesNotFit(FitResult.Stage.VOLUME), results.get(0));
+        assertEquals(DOES_NOT_FIT, results.get(1).verdict());
+        assertEquals(FitResult.Stage.SMALL_SEARCH, results.get(1).stage());
+        assertEquals(FitResult.fits(FitResult.Stage.MIN_STACK), results.get(2));
+    }
+
+    @Test
+    void testAgreesWithFitOnDecidedInstances() {
+        var random = new Random(20);
+        List<FitQuery> queries = new ArrayList<>();
+
+        for (int q = 0; q < 40; q++) {
+            var container = new Box(4 + random.nextInt(6), 4 + random.nextInt(6), 4 + random.nextInt(6));
+            List<Box> items = new ArrayList<>();
+
+            for (int i = 0; i < 2 + random.nextInt(6); i++) {
+                items.add(new Box(1 + random.nextInt(4), 1 + random.nextInt(4), 1 + random.nextInt(4)));
+            }
+
+            queries.add(new FitQuery(container, items));
+        }
+
+        var results = new DeadlineScheduler(FitOptions.defaults(), 2).fitAll(queries, 10_000);
+
+        for (int q = 0; q < queries.size(); q++) {
+            var query = queries.get(q);
+            var expected = query.container().fit(query.items(), 10_000).verdict();
+
+            if (results.get(q).verdict() != UNKNOWN) {
+                assertEquals(expected, results.get(q).verdict(), query::toString);
+            }
+        }
+    }
+
+    @Test
+    void testDeadlineHolds() {
+        // Hard for the solver, tight and all different
+        var random = new Random(7);
+        List<FitQuery> queries = new ArrayList<>();
+
+        for (int q = 0; q < 30; q++) {
+            List<Box> items = new ArrayList<>();
+
+            for (int i = 0; i < 12; i++) {
+                items.add(new Box(5 + random.nextInt(9), 5 + random.nextInt(9), 5 + random.nextInt(9)));
+            }
+
+            queries.add(new FitQuery(new Box(27, 29, 31), items));
+        }
+
+        long start = System.nanoTime();
+        var results = new DeadlineScheduler(FitOptions.defaults(), 2).fitAll(queries, 300);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(queries.size(), results.size());
+        assertFalse(results.contains(null));
+        assertTrue(elapsedMs < 1_000, () -> elapsedMs + " ms");
+    }
+
+    @Test
+    void testMetricsCountEveryQueryOnce() {
+        var queries = List.of(
+            new FitQuery(new Box(10, 5, 5), List.of(new Box(5, 5, 1), new Box(5, 5, 1))),
+            PackingTest.pastTheHeuristic(1)
+        );
+
+        FitMetrics.reset();
+        FitMetrics.enable();
+
+        try {
+            new DeadlineScheduler(FitOptions.defaults(), 1).fitAll(queries, 5_000);
+
+            // The quick pass left the second one to the solver, which alone records it
+            assertEquals(1, FitMetrics.count(FitResult.Stage.MIN_STACK));
+            assertEquals(1, FitMetrics.count(FitResult.Stage.SOLVER));
+            assertEquals(0, FitMetrics.count(FitResult.Stage.SOLVER_SKIPPED));
+            assertEquals(0, FitMetrics.count(UNKNOWN));
+            assertEquals(2, FitMetrics.count(FITS));
+        } finally {
+            FitMetrics.disable();
+            FitMetrics.reset();
+        }
+    }
+
+    @Test
+    void testDifficultyGrowsWithItemsAndFullness() {
+        var container = new Box(10, 10, 10);
+
+        assertTrue(DeadlineScheduler.difficulty(new FitQuery(container, Collections.nCopies(4, new Box(5, 5, 5))))
+            > DeadlineScheduler.difficulty(new FitQuery(container, Collections.nCopies(2, new Box(5, 5, 5)))));
+        assertTrue(DeadlineScheduler.difficulty(new FitQuery(container, Collections.nCopies(2, new Box(5, 5, 8))))
+            > DeadlineScheduler.difficulty(new FitQuery(container, Collections.nCopies(2, new Box(5, 5, 5)))));
+    }
+
+    @Test
+    void testEmptyBatchAndBadArguments() {
+        assertEquals(List.of(), new DeadlineScheduler(FitOptions.defaults(), 1).fitAll(List.of(), 1));
+        assertThrows(IllegalArgumentException.class, () -> new DeadlineScheduler(FitOptions.defaults(), 0));
+        assertThrows(IllegalArgumentException.class,
+            () -> new DeadlineScheduler(FitOptions.defaults(), 1).fitAll(List.of(), 0));
+    }
+}
@@ -0,0 +1,92 @@
+package com;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static com.FitResult.Stage;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecompositionTest {
+
+    private static final FitOptions OPTIONS = FitOptions.defaults();
+
+    @Test
+    void testSmallItemsGoAroundTheLargeOnes() {
+        var container = new Box(80, 60, 40);
+        List<Box> items = new ArrayList<>(Collections.nCopies(20, new Box(10, 10, 10)));
+        items.add(3, new Box(40, 60, 40));
+        items.add(new Box(60, 20, 40));
+
+        var packing = new Packing(container, items);
+        var result = Decomposition.fit(container, items, OPTIONS, packing);
+
+        assertNotNull(result);
+        assertEquals(Stage.DECOMPOSITION, result.stage());
+        assertTrue(result.fits());
+        PackingTest.assertValid(packing);
+    }
+
+    @Test
+    void testLargeItemsAloneDoNotFit() {
+        var container = new Box(10, 10, 10);
+        var items = List.of(new Box(1, 1, 1), new Box(6, 6, 6), new Box(1, 2, 1), new Box(6, 6, 6), new Box(2, 1, 1));
+
+        assertEquals(FitResult.doesNotFit(Stage.LARGE_ITEMS), Decomposition.fit(container, items, OPTIONS, null));
+    }
+
+    @Test
+    void testNeedsMoreSmallItemsThanLargeOnes() {
+        var container = new Box(10, 10, 10);
+
+        assertNull(Decomposition.fit(container, List.of(new Box(6, 6, 6), new Box(6, 6, 6)), OPTIONS, null));
+        assertNull(Decomposition.fit(container, List.of(new Box(1, 1, 1), new Box(2, 2, 2)), OPTIONS, null));
+
+        // As many small items as large ones
+        assertNull(Decomposition.fit(container, List.of(new Box(6, 6, 6), new Box(1, 1, 1)), OPTIONS, null));
+    }
+
+    @Test
+    void testAgreesWithTheSolver() {
+        var random = new Random(25);
+        var container = new Box(80, 60, 40);
+        var options = FitOptions.defaults().withTimeLimit(5_000);
+        int decided = 0;
+
+        for (int instance = 0; instance < 30; instance++) {
+            List<Box> items = new ArrayList<>();
+
+            // A few bulky items and a dozen accessories
+            for (int i = 0; i < 2 + random.nextInt(2); i++) {
+                items.add(new Box(25 + random.nextInt(30), 20 + random.nextInt(25), 15 + random.nextInt(20)));
+            }
+
+            for (int i = 0; i < 8 + random.nextInt(8); i++) {
+                items.add(new Box(3 + random.nextInt(12), 3 + random.nextInt(10), 2 + random.nextInt(8)));
+            }
+
+            var packing = new Packing(container, items);
+            var result = Decomposition.fit(container, items, options, packing);
+
+            if (result == null) {
+                continue;
+            }
+
+            var expected = container.solverFit(items, options).verdict();
+
+            if (expected != Box.Verdict.UNKNOWN) {
+                decided++;
+                assertEquals(expected, result.verdict(), items::toString);
+            }
+
+            if (result.fits()) {
+                PackingTest.assertValid(packing);
+            }
+        }
+
+        assertTrue(decided > 15, "decided " + decided);
+    }
+}
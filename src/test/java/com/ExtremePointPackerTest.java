@@ -0,0 +1,61 @@
+package com;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExtremePointPackerTest {
+    private static final long BUDGET_NANOS = 1_000_000_000L;
+
+    @Test
+    void testExactFitIsValid() {
+        Box container = new Box(3, 3, 3);
+
+        List<Box> items = List.of(
+            new Box(3, 1, 1), new Box(1, 1, 1), new Box(1, 1, 1), new Box(1, 1, 1),
+            new Box(1, 1, 1), new Box(1, 1, 1), new Box(1, 1, 3), new Box(1, 1, 1),
+            new Box(1, 2, 1), new Box(1, 1, 2), new Box(2, 1, 1), new Box(1, 3, 1),
+            new Box(1, 2, 1), new Box(1, 2, 1)
+        );
+
+        assertPacks(container, items);
+    }
+
+    @Test
+    void testNeedsRotation() {
+        Box container = new Box(6, 4, 4);
+        List<Box> items = List.of(new Box(4, 4, 3), new Box(4, 2, 4));
+
+        assertPacks(container, items);
+    }
+
+    @Test
+    void testCubesFillTheContainer() {
+        Box container = new Box(9, 6, 3);
+        List<Box> items = Collections.nCopies(6, new Box(3, 3, 3));
+
+        assertPacks(container, items);
+    }
+
+    @Test
+    void testNoFitIsNotPacked() {
+        Box container = new Box(3, 4, 2);
+        List<Box> items = List.of(new Box(1, 1, 1), new Box(2, 2, 2), new Box(3, 3, 1), new Box(3, 1, 1));
+
+        assertFalse(new ExtremePointPacker(container, items).pack(BUDGET_NANOS));
+    }
+
+    private static void assertPacks(Box container, List<Box> items) {
+        var packer = new ExtremePointPacker(container, items);
+
+        assertTrue(packer.pack(BUDGET_NANOS));
+
+        var packing = new Packing(container, items);
+        packer.copyTo(packing);
+
+        PackingTest.assertValid(packing);
+    }
+}
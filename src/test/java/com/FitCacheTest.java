@@ -0,0 +1,113 @@
+package com;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FitCacheTest {
+
+    @Test
+    void testReorderedAndRotatedItemsHit() {
+        FitCache cache = new FitCache(16, 1_000);
+        Box container = new Box(6, 4, 4);
+
+        assertTrue(cache.canTheseFitIn(container, List.of(new Box(4, 4, 2), new Box(4, 2, 4))));
+        assertTrue(cache.canTheseFitIn(new Box(4, 6, 4), List.of(new Box(2, 4, 4), new Box(4, 4, 2))));
+
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testNegativeAnswersAreCached() {
+        FitCache cache = new FitCache(16, 1_000);
+        Box container = new Box(5, 5, 5);
+        List<Box> items = List.of(new Box(3, 3, 3), new Box(3, 3, 3), new Box(3, 3, 3));
+
+        assertFalse(cache.canTheseFitIn(container, items));
+        assertFalse(cache.canTheseFitIn(container, items, 1_000));
+
+        assertEquals(1, cache.hits());
+    }
+
+    @Test
+    void testPackingsShareTheAnswers() {
+        FitCache cache = new FitCache(16, 1_000);
+        List<Box> misfit = List.of(new Box(3, 3, 3), new Box(3, 3, 3), new Box(3, 3, 3));
+        List<Box> fit = List.of(new Box(4, 4, 2), new Box(4, 2, 4));
+
+        assertFalse(cache.canTheseFitIn(new Box(5, 5, 5), misfit));
+        assertTrue(cache.packInto(new Box(5, 5, 5), misfit, FitOptions.defaults()).isEmpty());
+        assertEquals(1, cache.hits());
+
+        PackingTest.assertValid(cache.packInto(new Box(6, 4, 4), fit, FitOptions.defaults()).orElseThrow());
+        assertTrue(cache.canTheseFitIn(new Box(6, 4, 4), fit));
+        assertEquals(2, cache.hits());
+    }
+
+    @Test
+    void testUnknownAnswersAreComputedAgain() {
+        FitCache cache = new FitCache(16, 1_000);
+        var query = PackingTest.pastTheHeuristic(1);
+
+        // Left to the solver, which does not run, so UNKNOWN
+        assertFalse(cache.canTheseFitIn(query.container(), query.items(), FitOptions.defaults().withoutSolver()));
+        assertEquals(0, cache.size());
+
+        assertTrue(cache.canTheseFitIn(query.container(), query.items(), FitOptions.defaults()));
+        assertEquals(0, cache.hits());
+        assertEquals(2, cache.misses());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testDifferentMultisetsMiss() {
+        FitCache cache = new FitCache(16, 1_000);
+        Box container = new Box(10, 10, 10);
+
+        cache.canTheseFitIn(container, List.of(new Box(9, 1, 1), new Box(9, 1, 1)));
+        cache.canTheseFitIn(container, List.of(new Box(9, 1, 1), new Box(9, 1, 1), new Box(9, 1, 1)));
+
+        assertEquals(0, cache.hits());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedBySize() {
+        FitCache cache = new FitCache(2, 1_000);
+        Box container = new Box(10, 10, 10);
+        List<Box> a = List.of(new Box(1, 1, 1));
+        List<Box> b = List.of(new Box(2, 2, 2));
+        List<Box> c = List.of(new Box(3, 3, 3));
+
+        cache.canTheseFitIn(container, a);
+        cache.canTheseFitIn(container, b);
+        cache.canTheseFitIn(container, a);
+        cache.canTheseFitIn(container, c);
+
+        assertEquals(1, cache.evictions());
+        assertEquals(2, cache.size());
+
+        // b was the least recently used one
+        cache.canTheseFitIn(container, a);
+        assertEquals(2, cache.hits());
+        cache.canTheseFitIn(container, b);
+        assertEquals(2, cache.hits());
+    }
+
+    @Test
+    void testEvictsByWeight() {
+        FitCache cache = new FitCache(100, 4);
+        Box container = new Box(10, 10, 10);
+
+        cache.canTheseFitIn(container, List.of(new Box(1, 1, 1), new Box(1, 1, 1), new Box(1, 1, 1)));
+        cache.canTheseFitIn(container, List.of(new Box(2, 2, 2), new Box(2, 2, 2)));
+
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.weight());
+        assertEquals(1, cache.evictions());
+    }
+}
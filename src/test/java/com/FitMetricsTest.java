@@ -0,0 +1,138 @@
+package com;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.FitResult.Stage;
+import static com.PackingTest.pastTheHeuristic;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FitMetricsTest {
+
+    @BeforeEach
+    void setUp() {
+        FitMetrics.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        FitMetrics.disable();
+        FitMetrics.reset();
+    }
+
+    @Test
+    void testCountsByStageAndVerdict() {
+        FitMetrics.enable();
+
+        new Box(10, 5, 5).canTheseFitIn(Collections.nCopies(4, new Box(5, 5, 1)));
+        new Box(10, 5, 5).canTheseFitIn(Collections.nCopies(4, new Box(5, 5, 1)));
+        new Box(3, 3, 3).canTheseFitIn(List.of(new Box(3, 3, 3), new Box(1, 1, 1)));
+
+        assertEquals(2, FitMetrics.count(Stage.MIN_STACK));
+        assertEquals(1, FitMetrics.count(Stage.VOLUME));
+        assertEquals(2, FitMetrics.count(Box.Verdict.FITS));
+        assertEquals(1, FitMetrics.count(Box.Verdict.DOES_NOT_FIT));
+        assertEquals(2, Arrays.stream(FitMetrics.latencyHistogram(Stage.MIN_STACK)).sum());
+    }
+
+    @Test
+    void testSolverHistograms() {
+        FitMetrics.enable();
+
+        var query = pastTheHeuristic(1);
+
+        query.container().canTheseFitIn(query.items());
+
+        assertEquals(1, FitMetrics.count(Stage.SOLVER));
+        assertEquals(1, Arrays.stream(FitMetrics.solverLatencyHistogram()).sum());
+        assertEquals(1, Arrays.stream(FitMetrics.solverNodesHistogram()).sum());
+        assertEquals(1, Arrays.stream(FitMetrics.solverFailsHistogram()).sum());
+        assertEquals(1, Arrays.stream(FitMetrics.solverBacktracksHistogram()).sum());
+    }
+
+    @Test
+    void testSmallSearchIsNotASolverRun() {
+        FitMetrics.enable();
+
+        new Box(3, 4, 2).canTheseFitIn(List.of(new Box(1, 1, 1), new Box(2, 2, 2), new Box(3, 3, 1), new Box(3, 1, 1)));
+
+        assertEquals(1, FitMetrics.count(Stage.SMALL_SEARCH));
+        assertEquals(1, FitMetrics.count(Box.Verdict.DOES_NOT_FIT));
+        assertEquals(0, FitMetrics.count(Stage.SOLVER));
+        assertEquals(0, Arrays.stream(FitMetrics.solverLatencyHistogram()).sum());
+        assertEquals(0, Arrays.stream(FitMetrics.solverNodesHistogram()).sum());
+    }
+
+    @Test
+    void testSolverLatencyLeavesOutTheQuickStages() {
+        FitMetrics.enable();
+
+        new Box(10, 5, 5).canTheseFitIn(Collections.nCopies(4, new Box(5, 5, 1)));
+        assertEquals(0, Arrays.stream(FitMetrics.solverLatencyHistogram()).sum());
+
+        var instance = pastTheHeuristic(1);
+        var result = instance.container().fit(instance.items());
+        long[] solver = FitMetrics.solverLatencyHistogram();
+        long[] query = FitMetrics.latencyHistogram(Stage.SOLVER);
+
+        // The search alone, in the bucket of its own time and no later than the bucket of the whole query
+        assertEquals(1, solver[bucket(result.solverTimeNanos())]);
+        assertTrue(bucket(result.solverTimeNanos()) <= lastBucket(query));
+    }
+
+    @Test
+    void testDisabledRecordsNothing() {
+        new Box(10, 5, 5).canTheseFitIn(Collections.nCopies(4, new Box(5, 5, 1)));
+
+        assertEquals(0, FitMetrics.count(Stage.MIN_STACK));
+    }
+
+    @Test
+    void testSolverRunsAreJfrEvents() throws Exception {
+        var file = Files.createTempFile("solver", ".jfr");
+
+        try (var recording = new Recording()) {
+            recording.enable("com.boxy.Solver");
+            recording.start();
+
+            var query = pastTheHeuristic(1);
+
+            query.container().canTheseFitIn(query.items());
+
+            recording.stop();
+            recording.dump(file);
+
+            var events = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals("com.boxy.Solver"))
+                .toList();
+
+            assertEquals(1, events.size());
+            assertEquals(11, events.get(0).getInt("items"));
+            assertEquals("FITS", events.get(0).getString("verdict"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static int bucket(long value) {
+        return value <= 1 ? 0 : 63 - Long.numberOfLeadingZeros(value);
+    }
+
+    private static int lastBucket(long[] histogram) {
+        int last = histogram.length - 1;
+
+        while (last > 0 && histogram[last] == 0) {
+            last--;
+        }
+
+        return last;
+    }
+}
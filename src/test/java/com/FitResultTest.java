@@ -0,0 +1,175 @@
+package com;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.Box.Verdict.*;
+import static com.FitOptions.Formulation.NON_OVERLAP_3D;
+import static com.FitResult.Stage;
+import static com.PackingTest.pastTheHeuristic;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FitResultTest {
+
+    @Test
+    void testQuickStages() {
+        assertDecided(DOES_NOT_FIT, Stage.DOMINANCE, new Box(10, 5, 5).fit(List.of(new Box(9, 9, 1))));
+        assertDecided(FITS, Stage.MIN_STACK, new Box(10, 5, 5).fit(Collections.nCopies(4, new Box(5, 5, 1))));
+        assertDecided(DOES_NOT_FIT, Stage.VOLUME, new Box(3, 3, 3).fit(List.of(new Box(3, 3, 3), new Box(1, 1, 1))));
+        assertDecided(FITS, Stage.CUBE_SLICE,
+            new Box(50, 50, 50).fit(Collections.nCopies(20, new Box(10, 10, 10))));
+        assertDecided(FITS, Stage.MULTISTACK, new Box(10, 10, 4).fit(Collections.nCopies(4, new Box(5, 5, 2))));
+    }
+
+    @Test
+    void testLowerBoundStages() {
+        assertDecided(DOES_NOT_FIT, Stage.LOWER_BOUND_L1,
+            new Box(5, 5, 5).fit(Collections.nCopies(3, new Box(3, 3, 3))));
+        assertDecided(DOES_NOT_FIT, Stage.LOWER_BOUND_L2,
+            new Box(8, 5, 5).fit(Collections.nCopies(7, new Box(7, 4, 1))));
+        assertDecided(DOES_NOT_FIT, Stage.LOWER_BOUND_DFF,
+            new Box(20, 20, 20).fit(Collections.nCopies(20, new Box(7, 7, 7))));
+    }
+
+    @Test
+    void testExtremePointStage() {
+        List<Box> items = List.of(
+            new Box(3, 1, 1), new Box(1, 1, 1), new Box(1, 1, 1), new Box(1, 1, 1),
+            new Box(1, 1, 1), new Box(1, 1, 1), new Box(1, 1, 3), new Box(1, 1, 1),
+            new Box(1, 2, 1), new Box(1, 1, 2), new Box(2, 1, 1), new Box(1, 3, 1),
+            new Box(1, 2, 1), new Box(1, 2, 1)
+        );
+
+        assertDecided(FITS, Stage.EXTREME_POINT, new Box(3, 3, 3).fit(items));
+    }
+
+    @Test
+    void testSolverStageHasStatistics() {
+        var query = pastTheHeuristic(1);
+        var result = query.container().fit(query.items());
+
+        assertDecided(FITS, Stage.SOLVER, result);
+        assertTrue(result.solverNodes() > 0);
+        assertTrue(result.solverTimeNanos() > 0);
+        assertEquals(1, result.scale());
+    }
+
+    @Test
+    void testSmallSearchProvesNoFit() {
+        List<Box> items = List.of(new Box(1, 1, 1), new Box(2, 2, 2), new Box(3, 3, 1), new Box(3, 1, 1));
+
+        var result = new Box(3, 4, 2).fit(items);
+
+        assertDecided(DOES_NOT_FIT, Stage.SMALL_SEARCH, result);
+        assertTrue(result.solverFails() > 0);
+        assertTrue(result.solverFails() != result.solverBacktracks());
+    }
+
+    @Test
+    void testSolverProvesNoFit() {
+        List<Box> items = List.of(new Box(1, 1, 1), new Box(2, 2, 2), new Box(3, 3, 1), new Box(3, 1, 1));
+
+        // Another formulation than the default one is only ever the solver's
+        var result = new Box(3, 4, 2).fit(items, FitOptions.defaults().withFormulation(NON_OVERLAP_3D));
+
+        assertDecided(DOES_NOT_FIT, Stage.SOLVER, result);
+        assertTrue(result.solverFails() > 0);
+    }
+
+    @Test
+    void testScaledSolverStage() {
+        var query = pastTheHeuristic(2);
+        var result = query.container().fit(query.items());
+
+        assertDecided(FITS, Stage.SOLVER, result);
+        assertEquals(2, result.scale());
+    }
+
+    @Test
+    void testTimeoutIsUnknown() {
+        // 861 of 864 filled, neither proven nor refuted within a second
+        List<Box> items = List.of(
+            new Box(2, 3, 3), new Box(5, 4, 4), new Box(4, 3, 5), new Box(2, 3, 5), new Box(4, 2, 4),
+            new Box(5, 2, 4), new Box(2, 5, 4), new Box(4, 4, 3), new Box(4, 3, 4), new Box(3, 4, 5),
+            new Box(4, 2, 4), new Box(3, 5, 5), new Box(4, 2, 5), new Box(3, 3, 4), new Box(4, 2, 5),
+            new Box(4, 2, 4), new Box(2, 3, 5), new Box(5, 5, 3), new Box(5, 3, 3)
+        );
+
+        var result = new Box(9, 12, 8).fit(items, 100);
+
+        assertDecided(UNKNOWN, Stage.SOLVER, result);
+        assertFalse(result.fits());
+    }
+
+    @Test
+    void testSkippedSolverIsNotATimeout() {
+        var query = pastTheHeuristic(1);
+        var options = FitOptions.defaults().withoutSolver();
+        var result = query.container().fit(query.items(), options);
+
+        assertDecided(UNKNOWN, Stage.SOLVER_SKIPPED, result);
+        assertEquals(0, result.solverNodes());
+        assertFalse(options.hasTimeLimit());
+        assertEquals(100, options.withTimeLimit(100).withoutSolver().limitMs());
+    }
+
+    @Test
+    void testPortfolioStatisticsAreSummed() {
+        var query = pastTheHeuristic(1);
+        var result = query.container().fit(query.items(), FitOptions.defaults().withPortfolio(2));
+
+        assertDecided(FITS, Stage.SOLVER, result);
+        assertTrue(result.solverNodes() > 0);
+    }
+
+    @Test
+    void testCoarseGridFitIsFinal() {
+        var container = new Box(1000, 800, 600);
+        List<Box> items = List.of(
+            new Box(480, 390, 290), new Box(470, 380, 280), new Box(310, 250, 590),
+            new Box(190, 790, 280), new Box(995, 100, 100), new Box(120, 130, 140)
+        );
+        var options = FitOptions.defaults().withCoarseGrid(100);
+
+        var result = container.fit(items, options);
+
+        assertTrue(result.fits(), result::toString);
+        assertEquals(0, result.scale() % 100, result::toString);
+
+        var packing = container.packInto(items, options);
+
+        assertTrue(packing.isPresent());
+        PackingTest.assertValid(packing.get());
+    }
+
+    @Test
+    void testCoarseGridMisfitEscalates() {
+        // 2 x 1 x 1 on the grid, only 13 of those go into the 3-cube
+        var result = new Box(303, 300, 300).fit(Collections.nCopies(27, new Box(101, 100, 100)),
+            FitOptions.defaults().withCoarseGrid(100));
+
+        assertTrue(result.fits(), result::toString);
+        assertEquals(1, result.scale());
+    }
+
+    @Test
+    void testCoarseGridLeavesTheSolverToTheExactInstance() {
+        // The grid instance is the one past the heuristic, so only the solver decides it
+        var query = pastTheHeuristic(100);
+        List<Box> items = new ArrayList<>(query.items());
+        items.set(items.size() - 1, new Box(300, 299, 99));
+
+        var result = query.container().fit(items, FitOptions.defaults().withCoarseGrid(100));
+
+        assertDecided(FITS, Stage.SOLVER, result);
+        assertEquals(1, result.scale());
+    }
+
+    private static void assertDecided(Box.Verdict verdict, Stage stage, FitResult result) {
+        assertEquals(verdict, result.verdict(), result::toString);
+        assertEquals(stage, result.stage(), result::toString);
+    }
+}
@@ -0,0 +1,156 @@
+package com;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FitServerTest {
+
+    private static final HttpClient CLIENT = HttpClient.newHttpClient();
+
+    // Past every check short of the solver, see PackingTest.pastTheHeuristic
+    private static final String HARD = "{\"container\": [4, 5, 4], \"items\": [[2, 3, 1], [1, 1, 2], [1, 1, 1], "
+        + "[3, 2, 2], [3, 2, 1], [2, 3, 2], [1, 2, 2], [3, 3, 2], [1, 3, 2], [2, 2, 1], [3, 3, 1]]}";
+
+    // Past the first checks, but decided by a lower bound
+    private static final String BOUNDED = "{\"container\": [5, 5, 5], \"items\": [[3, 3, 3], [3, 3, 3], [3, 3, 3]]}";
+
+    private FitServer server;
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void testQuickAndSolverAnswers() throws Exception {
+        start(new FitServer(localhost(), FitOptions.defaults().withTimeLimit(1_000), 1, 0));
+
+        var quick = post("{\"id\": \"q\", \"container\": [10, 5, 5], \"items\": [[5, 5, 1], [5, 5, 1]]}").join();
+        var bounded = post(BOUNDED).join();
+        var hard = post(HARD).join();
+
+        assertEquals(200, quick.statusCode());
+        assertEquals("{\"id\":\"q\",\"verdict\":\"FITS\",\"stage\":\"MIN_STACK\"}", quick.body());
+        assertEquals(200, bounded.statusCode());
+        assertEquals("{\"id\":\"\",\"verdict\":\"DOES_NOT_FIT\",\"stage\":\"LOWER_BOUND_L1\"}", bounded.body());
+        assertEquals(200, hard.statusCode());
+        assertEquals("{\"id\":\"\",\"verdict\":\"FITS\",\"stage\":\"SOLVER\"}", hard.body());
+        assertEquals(2, server.quick());
+        assertEquals(1, server.solved());
+    }
+
+    @Test
+    void testBadRequests() throws Exception {
+        start(new FitServer(localhost(), FitOptions.defaults(), 1, 0));
+
+        assertEquals(400, post("{\"container\": [5, 5, 5]}").join().statusCode());
+        assertEquals(400, post("{\"container\": [5, 5, 0], \"items\": []}").join().statusCode());
+        assertEquals(405, CLIENT.send(HttpRequest.newBuilder(uri("/fit")).GET().build(),
+            HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    @Test
+    void testIdenticalRequestsShareOneComputation() throws Exception {
+        var release = new CountDownLatch(1);
+        var calls = new AtomicInteger();
+
+        start(new FitServer(localhost(), FitOptions.defaults(), 1, 0, (container, items) -> {
+            calls.incrementAndGet();
+            await(release);
+            return container.fit(items);
+        }));
+
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        responses.add(post(HARD));
+
+        // Same multiset, in another order and orientation
+        for (int i = 0; i < 4; i++) {
+            responses.add(post("{\"container\": [5, 4, 4], \"items\": [[1, 3, 3], [1, 2, 2], [2, 1, 3], "
+                + "[2, 3, 3], [2, 1, 2], [2, 2, 3], [1, 3, 2], [2, 3, 2], [1, 1, 1], [2, 1, 1], [1, 2, 3]]}"));
+        }
+
+        while (server.coalesced() < 4) {
+            Thread.sleep(5);
+        }
+
+        release.countDown();
+
+        for (var response : responses) {
+            assertEquals(200, response.join().statusCode());
+            assertEquals(responses.get(0).join().body(), response.join().body());
+        }
+
+        assertEquals(1, calls.get());
+        assertEquals(4, server.coalesced());
+    }
+
+    @Test
+    void testHardBurstDoesNotHoldUpQuickRequests() throws Exception {
+        var solving = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        start(new FitServer(localhost(), FitOptions.defaults(), 1, 0, (container, items) -> {
+            solving.countDown();
+            await(release);
+            return container.fit(items);
+        }));
+
+        var admitted = post(HARD);
+        solving.await();
+
+        var turnedAway = post("{\"container\": [3, 4, 2], \"items\": [[1, 1, 1], [2, 2, 2], [3, 3, 1], [3, 1, 1]]}")
+            .join();
+        var quick = post("{\"container\": [10, 5, 5], \"items\": [[5, 5, 1]]}").join();
+        var bounded = post(BOUNDED).join();
+
+        assertEquals(503, turnedAway.statusCode());
+        assertEquals("1", turnedAway.headers().firstValue("Retry-After").orElseThrow());
+        assertEquals(200, quick.statusCode());
+        assertEquals(200, bounded.statusCode());
+
+        release.countDown();
+
+        assertEquals(200, admitted.join().statusCode());
+        assertEquals(1, server.rejected());
+    }
+
+    private void start(FitServer server) {
+        this.server = server;
+        server.start();
+    }
+
+    private CompletableFuture<HttpResponse<String>> post(String body) {
+        return CLIENT.sendAsync(HttpRequest.newBuilder(uri("/fit")).POST(HttpRequest.BodyPublishers.ofString(body))
+            .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.address().getPort() + path);
+    }
+
+    private static InetSocketAddress localhost() {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
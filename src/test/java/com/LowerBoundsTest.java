@@ -0,0 +1,54 @@
+package com;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LowerBoundsTest {
+
+    @Test
+    void testOverHalfCubesOneAtATime() {
+        List<Box> items = Collections.nCopies(3, new Box(3, 3, 3));
+
+        assertEquals(LowerBounds.Bound.L1, LowerBounds.violated(new Box(5, 5, 5), items));
+    }
+
+    @Test
+    void testLargeSmallThresholds() {
+        // Volume 196 <= 200, but 7 of 8 along the width leaves no room for a second plate
+        List<Box> items = Collections.nCopies(7, new Box(7, 4, 1));
+
+        assertEquals(LowerBounds.Bound.L2, LowerBounds.violated(new Box(8, 5, 5), items));
+    }
+
+    @Test
+    void testRoundingCatchesThirds() {
+        // Only two 7-cubes per axis of 20, 8 of them at most
+        List<Box> items = Collections.nCopies(20, new Box(7, 7, 7));
+
+        assertEquals(LowerBounds.Bound.DFF, LowerBounds.violated(new Box(20, 20, 20), items));
+    }
+
+    @Test
+    void testFittingItemsPassEveryBound() {
+        List<Box> items = List.of(
+            new Box(3, 1, 1), new Box(1, 1, 1), new Box(1, 1, 1), new Box(1, 1, 1),
+            new Box(1, 1, 1), new Box(1, 1, 1), new Box(1, 1, 3), new Box(1, 1, 1),
+            new Box(1, 2, 1), new Box(2, 1, 2), new Box(2, 1, 1), new Box(1, 3, 1),
+            new Box(1, 2, 1), new Box(1, 2, 1)
+        );
+
+        assertNull(LowerBounds.violated(new Box(3, 3, 3), items));
+        assertNull(LowerBounds.violated(new Box(5, 5, 5), Collections.nCopies(8, new Box(2, 2, 2))));
+    }
+
+    @Test
+    void testHugeDimensionsProveNothing() {
+        Box container = new Box(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+        assertNull(LowerBounds.violated(container, List.of(new Box(3, 3, 3))));
+    }
+}
@@ -0,0 +1,105 @@
+package com;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModelPoolTest {
+    private static final FitOptions.Formulation FORMULATION = FitOptions.Formulation.PAIRWISE;
+    private static final Set<FitOptions.Symmetry> SYMMETRY = FitOptions.defaults().symmetryBreaking();
+
+    @Test
+    void testTemplateIsReused() {
+        var pool = ModelPool.get();
+        var container = new Box(7, 7, 7);
+
+        var first = pool.acquire(container, List.of(new Box(3, 4, 5), new Box(2, 2, 2)), FORMULATION, SYMMETRY);
+        pool.release(first);
+
+        var second = pool.acquire(container, List.of(new Box(6, 6, 6), new Box(1, 2, 3)), FORMULATION, SYMMETRY);
+        pool.release(second);
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void testTurnedContainerGetsItsOwnTemplate() {
+        var pool = ModelPool.get();
+        List<Box> items = List.of(new Box(2, 2, 2), new Box(2, 2, 2), new Box(2, 2, 2), new Box(2, 2, 2));
+        PackingModel previous = null;
+
+        // Same dimensions, equal as boxes, along different axes
+        for (var container : List.of(new Box(8, 2, 2), new Box(2, 2, 8), new Box(2, 8, 2))) {
+            var model = pool.acquire(container, items, FORMULATION, SYMMETRY);
+
+            try {
+                assertNotSame(previous, model);
+                assertTrue(model.model.getSolver().solve());
+
+                var packing = new Packing(container, items);
+                model.copyTo(packing, new int[]{0, 1, 2, 3});
+                PackingTest.assertValid(packing);
+            } finally {
+                pool.release(model);
+            }
+
+            previous = model;
+        }
+    }
+
+    @Test
+    void testPoolIsBounded() {
+        var pool = ModelPool.get();
+
+        for (int size = 1; size <= 2 * ModelPool.MAX_TEMPLATES; size++) {
+            pool.release(pool.acquire(new Box(size, size, size), List.of(new Box(1, 1, 1)), FORMULATION, SYMMETRY));
+        }
+
+        assertEquals(ModelPool.MAX_TEMPLATES, pool.size());
+    }
+
+    @Test
+    void testAgreesWithAFreshModel() {
+        var random = new Random(22);
+        var pool = ModelPool.get();
+        var container = new Box(6, 6, 6);
+        int fits = 0;
+
+        // The same template goes through fits and no fits, nothing of one search may leak into the next
+        for (int instance = 0; instance < 100; instance++) {
+            List<Box> items = new ArrayList<>();
+
+            for (int i = 0; i < 6; i++) {
+                items.add(new Box(1 + random.nextInt(5), 1 + random.nextInt(5), 1 + random.nextInt(5)));
+            }
+
+            items.sort(Box.BOX_COMPARATOR.reversed());
+            int[] order = {0, 1, 2, 3, 4, 5};
+
+            boolean expected = new PackingModel(container, items, FORMULATION).model.getSolver().solve();
+            var model = pool.acquire(container, items, FORMULATION, SYMMETRY);
+
+            try {
+                boolean solved = model.model.getSolver().solve();
+                assertEquals(expected, solved, items::toString);
+
+                if (solved) {
+                    var packing = new Packing(container, items);
+                    model.copyTo(packing, order);
+                    PackingTest.assertValid(packing);
+                    fits++;
+                }
+            } finally {
+                pool.release(model);
+            }
+        }
+
+        // Both kinds, so that the comparison means something
+        assertTrue(fits > 10 && fits < 90, "fits " + fits);
+    }
+}
@@ -0,0 +1,123 @@
+package com;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonotoneFitCacheTest {
+
+    @Test
+    void testPartOfAFittingOrderFits() {
+        var cache = new MonotoneFitCache(16, 16);
+        var container = new Box(6, 4, 4);
+
+        assertTrue(cache.canTheseFitIn(container, List.of(new Box(4, 4, 2), new Box(4, 2, 4), new Box(2, 2, 2))));
+        assertTrue(cache.canTheseFitIn(new Box(4, 6, 4), List.of(new Box(2, 4, 4), new Box(2, 2, 2))));
+        assertTrue(cache.canTheseFitIn(container, List.of()));
+
+        assertEquals(2, cache.hits());
+        assertEquals(2, cache.inferred());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    void testMoreThanANotFittingOrderDoesNotFit() {
+        var cache = new MonotoneFitCache(16, 16);
+        var container = new Box(5, 5, 5);
+        var cube = new Box(3, 3, 3);
+
+        assertFalse(cache.canTheseFitIn(container, List.of(cube, cube)));
+        assertFalse(cache.canTheseFitIn(container, List.of(new Box(1, 1, 1), cube, cube), 1_000));
+        assertFalse(cache.canTheseFitIn(container, List.of(cube, cube, cube), FitOptions.defaults()));
+
+        assertEquals(2, cache.inferred());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testUnrelatedOrdersMiss() {
+        var cache = new MonotoneFitCache(16, 16);
+        var container = new Box(10, 10, 10);
+
+        // Neither holds the other
+        cache.canTheseFitIn(container, List.of(new Box(9, 1, 1), new Box(9, 1, 1)));
+        cache.canTheseFitIn(container, List.of(new Box(9, 1, 1), new Box(8, 1, 1)));
+
+        // Same items, other container
+        cache.canTheseFitIn(new Box(9, 9, 9), List.of(new Box(9, 1, 1)));
+
+        assertEquals(0, cache.hits());
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void testKeepsOnlyTheBiggestFittingOrders() {
+        var cache = new MonotoneFitCache(16, 16);
+        var container = new Box(10, 10, 10);
+        var item = new Box(1, 1, 1);
+
+        // The first two ones are taken in by the ones after
+        cache.canTheseFitIn(container, List.of(item));
+        cache.canTheseFitIn(container, List.of(item, new Box(2, 2, 2)));
+        cache.canTheseFitIn(container, List.of(item, item, new Box(2, 2, 2)));
+        cache.canTheseFitIn(container, List.of(new Box(3, 3, 3)));
+
+        assertEquals(0, cache.hits());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        var cache = new MonotoneFitCache(2, 2);
+        var container = new Box(10, 10, 10);
+        List<Box> a = List.of(new Box(9, 1, 1));
+        List<Box> b = List.of(new Box(8, 1, 1));
+        List<Box> c = List.of(new Box(7, 1, 1));
+
+        cache.canTheseFitIn(container, a);
+        cache.canTheseFitIn(container, b);
+        cache.canTheseFitIn(container, a);
+        cache.canTheseFitIn(container, c);
+
+        assertEquals(2, cache.size());
+
+        // b was the least recently used one
+        cache.canTheseFitIn(container, a);
+        assertEquals(2, cache.hits());
+        cache.canTheseFitIn(container, b);
+        assertEquals(2, cache.hits());
+
+        // And so is the first container now
+        cache.canTheseFitIn(new Box(9, 9, 9), a);
+        cache.canTheseFitIn(new Box(8, 8, 8), a);
+        cache.canTheseFitIn(container, a);
+        assertEquals(2, cache.hits());
+    }
+
+    @Test
+    void testEditedOrdersAgreeWithTheChecks() {
+        var random = new Random(24);
+        var cache = new MonotoneFitCache(4, 64);
+        var container = new Box(12, 10, 8);
+        List<Box> items = new ArrayList<>();
+
+        // Lines added, taken out and orders split, like while editing
+        for (int edit = 0; edit < 300; edit++) {
+            if (items.size() < 2 || random.nextInt(3) == 0) {
+                items.add(new Box(2 + 2 * random.nextInt(3), 2 + 2 * random.nextInt(3), 2 + 2 * random.nextInt(3)));
+            } else if (random.nextBoolean()) {
+                items.remove(random.nextInt(items.size()));
+            } else {
+                items = new ArrayList<>(items.subList(0, items.size() / 2 + 1));
+            }
+
+            assertEquals(container.canTheseFitIn(items), cache.canTheseFitIn(container, items), items::toString);
+        }
+
+        assertTrue(cache.inferred() > 0);
+    }
+}
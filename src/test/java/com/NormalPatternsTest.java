@@ -0,0 +1,51 @@
+package com;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NormalPatternsTest {
+
+    @Test
+    void testSubsetSumsTakeOneDimensionPerItem() {
+        int[] sums = NormalPatterns.subsetSums(10, List.of(new Box(2, 3, 3), new Box(5, 5, 5)));
+
+        assertArrayEquals(new int[]{0, 2, 3, 5, 7, 8}, sums);
+    }
+
+    @Test
+    void testSubsetSumsAcrossWords() {
+        int[] sums = NormalPatterns.subsetSums(200, List.of(new Box(63, 64, 65), new Box(63, 64, 65)));
+
+        assertArrayEquals(new int[]{0, 63, 64, 65, 126, 127, 128, 129, 130}, sums);
+        assertArrayEquals(new int[]{0, 63, 64, 65}, NormalPatterns.subsetSums(127 - 2, List.of(new Box(63, 64, 65))));
+    }
+
+    @Test
+    void testSumsRepeatDimensions() {
+        assertArrayEquals(new int[]{0, 3, 5, 6, 8, 9, 10}, NormalPatterns.sums(10, new int[]{3, 5}));
+    }
+
+    @Test
+    void testModelPositionsAreNormalPatterns() {
+        // Millimetres, only multiples of 100 are worth trying
+        var model = new PackingModel(new Box(601, 400, 400),
+            List.of(new Box(300, 200, 200), new Box(300, 200, 200), new Box(100, 200, 400)),
+            FitOptions.Formulation.PAIRWISE);
+
+        assertEquals(5, model.xs[0].getDomainSize());
+        assertEquals(400, model.xs[0].getUB());
+        assertFalse(model.xs[0].contains(1));
+    }
+
+    @Test
+    void testDensePatternsStayIntervals() {
+        var model = new PackingModel(new Box(10, 10, 10), Collections.nCopies(4, new Box(1, 2, 3)),
+            FitOptions.Formulation.PAIRWISE);
+
+        assertEquals(10, model.xs[0].getDomainSize());
+    }
+}
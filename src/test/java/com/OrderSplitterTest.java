@@ -0,0 +1,101 @@
+package com;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderSplitterTest {
+
+    private static final BoxCatalog CATALOG = new BoxCatalog(List.of(
+        new Box(10, 10, 10), new Box(5, 5, 5), new Box(10, 5, 5), new Box(20, 4, 4)
+    ));
+
+    private static final FitOptions OPTIONS = FitOptions.defaults().withTimeLimit(20);
+
+    @Test
+    void testFillsBiggestContainersThenShrinksTheLast() {
+        var splitter = new OrderSplitter(CATALOG, new FitCache(1000, 100_000), OPTIONS);
+        var bins = splitter.split(Collections.nCopies(10, new Box(5, 5, 5))).orElseThrow();
+
+        assertEquals(2, bins.size());
+        assertEquals(new Box(10, 10, 10), bins.get(0).container());
+        assertEquals(8, bins.get(0).items().size());
+        assertEquals(new Box(10, 5, 5), bins.get(1).container());
+
+        for (var bin : bins) {
+            PackingTest.assertValid(bin.packing());
+        }
+    }
+
+    @Test
+    void testLongItemsGetTheLongContainer() {
+        var splitter = new OrderSplitter(CATALOG, new FitCache(1000, 100_000), OPTIONS);
+        var bins = splitter.split(List.of(new Box(18, 3, 3), new Box(2, 2, 2))).orElseThrow();
+
+        assertEquals(1, bins.size());
+        assertEquals(new Box(20, 4, 4), bins.get(0).container());
+    }
+
+    @Test
+    void testItemThatFitsNowhere() {
+        var splitter = new OrderSplitter(CATALOG, new FitCache(1000, 100_000), OPTIONS);
+
+        assertEquals(Optional.empty(), splitter.split(List.of(new Box(1, 1, 1), new Box(21, 1, 1))));
+        assertEquals(Optional.of(List.of()), splitter.split(List.of()));
+    }
+
+    @Test
+    void testLargeOrder() {
+        var random = new Random(3);
+        List<Box> items = new ArrayList<>();
+        long volume = 0;
+
+        for (int i = 0; i < 100; i++) {
+            var item = new Box(1 + random.nextInt(5), 1 + random.nextInt(5), 1 + random.nextInt(5));
+            items.add(item);
+            volume += item.volume();
+        }
+
+        var cache = new FitCache(10_000, 1_000_000);
+        var bins = new OrderSplitter(CATALOG, cache, OPTIONS).split(items).orElseThrow();
+        List<Box> packed = new ArrayList<>();
+
+        for (var bin : bins) {
+            assertEquals(bin.container(), bin.packing().container());
+            assertEquals(bin.items(), bin.packing().items());
+            PackingTest.assertValid(bin.packing());
+            packed.addAll(bin.items());
+        }
+
+        assertTrue(bins.size() >= (volume + 999) / 1000);
+        assertEquals(sorted(items), sorted(packed));
+        assertTrue(cache.misses() > 0);
+    }
+
+    @Test
+    void testBinPastTheExtremePointsKeepsThePackingOfItsCheck() {
+        var query = PackingTest.pastTheHeuristic(1);
+        var catalog = new BoxCatalog(List.of(query.container()));
+        var options = FitOptions.defaults().withTimeLimit(5_000);
+        var splitter = new OrderSplitter(catalog, new FitCache(1000, 100_000), options);
+
+        var bins = splitter.split(query.items()).orElseThrow();
+
+        assertEquals(1, bins.size());
+        assertEquals(query.container(), bins.get(0).packing().container());
+        assertEquals(bins.get(0).items(), bins.get(0).packing().items());
+        PackingTest.assertValid(bins.get(0).packing());
+    }
+
+    private static List<Box> sorted(List<Box> items) {
+        List<Box> result = new ArrayList<>(items);
+        result.sort(Box.BOX_COMPARATOR);
+        return result;
+    }
+}
@@ -0,0 +1,142 @@
+package com;
+
+import org.chocosolver.solver.Cause;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static com.FitOptions.Symmetry.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackingModelTest {
+    private static final List<Set<FitOptions.Symmetry>> RULES = List.of(
+        EnumSet.of(IDENTICAL_ITEMS), EnumSet.of(ROTATIONS), EnumSet.of(MIRROR), EnumSet.of(AXES),
+        EnumSet.allOf(FitOptions.Symmetry.class));
+
+    @Test
+    void testSymmetryBreakingKeepsTheVerdict() {
+        var random = new Random(23);
+        int fits = 0;
+
+        for (int instance = 0; instance < 40; instance++) {
+            // Square faces and identical items, so that every rule has something to cut
+            int side = 4 + random.nextInt(2);
+            var container = new Box(side, side, random.nextBoolean() ? side : side + 1);
+            List<Box> items = new ArrayList<>();
+
+            for (int i = 0; i < 5; i++) {
+                var item = new Box(1 + random.nextInt(3), 1 + random.nextInt(4), 1 + random.nextInt(4));
+                items.add(item);
+
+                if (random.nextInt(3) == 0) {
+                    items.add(item);
+                }
+            }
+
+            items.sort(Box.BOX_COMPARATOR.reversed());
+            boolean expected = solve(container, items, EnumSet.noneOf(FitOptions.Symmetry.class));
+
+            for (var rules : RULES) {
+                assertEquals(expected, solve(container, items, rules), () -> rules + " " + container + " " + items);
+            }
+
+            if (expected) {
+                fits++;
+            }
+        }
+
+        assertTrue(fits > 5 && fits < 35, "fits " + fits);
+    }
+
+    @Test
+    void testSymmetryBreakingCutsTheSearch() {
+        // Does not fit, which takes going through the mirrored and turned placements of the first item without
+        // the container rules
+        var container = new Box(10, 10, 10);
+        var items = List.of(new Box(4, 7, 7), new Box(6, 4, 7), new Box(7, 6, 4), new Box(5, 4, 7), new Box(2, 7, 2));
+
+        var itemRules = new PackingModel(container, items, FitOptions.Formulation.PAIRWISE,
+            EnumSet.of(IDENTICAL_ITEMS, ROTATIONS));
+        var all = new PackingModel(container, items, FitOptions.Formulation.PAIRWISE,
+            EnumSet.allOf(FitOptions.Symmetry.class));
+
+        assertFalse(itemRules.model.getSolver().solve());
+        assertFalse(all.model.getSolver().solve());
+        assertTrue(10 * all.model.getSolver().getNodeCount() < itemRules.model.getSolver().getNodeCount());
+    }
+
+    @Test
+    void testNonOverlap3DKeepsTheVerdict() {
+        var random = new Random(29);
+        var none = EnumSet.noneOf(FitOptions.Symmetry.class);
+        int fits = 0;
+
+        for (int instance = 0; instance < 40; instance++) {
+            var container = new Box(4 + random.nextInt(2), 4 + random.nextInt(2), 4 + random.nextInt(2));
+            List<Box> items = new ArrayList<>();
+
+            for (int i = 0; i < 6; i++) {
+                items.add(new Box(1 + random.nextInt(3), 1 + random.nextInt(4), 1 + random.nextInt(4)));
+            }
+
+            items.sort(Box.BOX_COMPARATOR.reversed());
+            boolean expected = solve(container, items, none);
+
+            assertEquals(expected, solve(container, items, FitOptions.Formulation.NON_OVERLAP_3D, none),
+                () -> container + " " + items);
+
+            if (expected) {
+                fits++;
+            }
+        }
+
+        assertTrue(fits > 5 && fits < 35, "fits " + fits);
+    }
+
+    @Test
+    void testNonOverlap3DFiltersOnEveryChange() throws Exception {
+        var container = new Box(4, 1, 1);
+        var items = List.of(new Box(2, 1, 1), new Box(1, 1, 1), new Box(1, 1, 1));
+        var model = new PackingModel(container, items, FitOptions.Formulation.NON_OVERLAP_3D,
+            EnumSet.noneOf(FitOptions.Symmetry.class));
+        var solver = model.model.getSolver();
+
+        solver.propagate();
+        assertEquals(0, model.xs[1].getLB());
+
+        // Every placement wakes the pairs of the item placed, the long one at the left end pushes the others right
+        model.xs[0].instantiateTo(0, Cause.Null);
+        model.xs[1].instantiateTo(2, Cause.Null);
+        solver.propagate();
+
+        assertEquals(3, model.xs[2].getLB());
+    }
+
+    private static boolean solve(Box container, List<Box> items, Set<FitOptions.Symmetry> rules) {
+        return solve(container, items, FitOptions.Formulation.PAIRWISE, rules);
+    }
+
+    private static boolean solve(Box container, List<Box> items, FitOptions.Formulation formulation,
+                                 Set<FitOptions.Symmetry> rules) {
+        var model = new PackingModel(container, items, formulation, rules);
+
+        if (!model.model.getSolver().solve()) {
+            return false;
+        }
+
+        var packing = new Packing(container, items);
+        int[] order = new int[items.size()];
+
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+
+        model.copyTo(packing, order);
+        PackingTest.assertValid(packing);
+        return true;
+    }
+}
@@ -0,0 +1,67 @@
+package com;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackingSessionTest {
+
+    @Test
+    void testFillsUpOneByOne() {
+        var session = new PackingSession(new Box(3, 3, 3));
+
+        for (int i = 0; i < 27; i++) {
+            assertTrue(session.add(new Box(1, 1, 1)));
+        }
+
+        assertFalse(session.add(new Box(1, 1, 1)));
+        assertEquals(27, session.size());
+        PackingTest.assertValid(session.packing());
+    }
+
+    @Test
+    void testRejectedItemLeavesSessionAsItWas() {
+        var session = new PackingSession(new Box(3, 4, 2));
+
+        assertTrue(session.add(new Box(1, 1, 1)));
+        assertTrue(session.add(new Box(2, 2, 2)));
+        assertTrue(session.add(new Box(3, 1, 1)));
+
+        var before = session.packing().toString();
+
+        assertFalse(session.add(new Box(3, 3, 1)));
+        assertEquals(3, session.size());
+        assertEquals(before, session.packing().toString());
+
+        // Still room for something smaller
+        assertTrue(session.add(new Box(1, 1, 1)));
+        PackingTest.assertValid(session.packing());
+    }
+
+    @Test
+    void testRepacksWhenTheLastPlacementIsStuck() {
+        var session = new PackingSession(new Box(3, 4, 3));
+
+        List<Box> items = List.of(
+            new Box(3, 3, 1), new Box(2, 2, 1), new Box(2, 1, 2),
+            new Box(3, 1, 2), new Box(3, 1, 2), new Box(3, 1, 2)
+        );
+
+        for (var item : items) {
+            assertTrue(session.add(item), "Could not add " + item + " to " + session.packing());
+        }
+
+        assertEquals(items, session.items());
+        PackingTest.assertValid(session.packing());
+    }
+
+    @Test
+    void testItemTooBigForTheContainer() {
+        var session = new PackingSession(new Box(10, 5, 5));
+
+        assertFalse(session.add(new Box(9, 9, 1)));
+        assertEquals(0, session.size());
+    }
+}
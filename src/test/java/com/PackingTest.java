@@ -0,0 +1,114 @@
+package com;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackingTest {
+
+    @Test
+    void testMinStackPacking() {
+        assertValid(new Box(10, 5, 5).packInto(Collections.nCopies(4, new Box(5, 5, 1))).orElseThrow());
+    }
+
+    @Test
+    void testCubeSlicePacking() {
+        assertValid(new Box(50, 50, 50).packInto(Collections.nCopies(20, new Box(10, 10, 10))).orElseThrow());
+    }
+
+    @Test
+    void testMultistackPacking() {
+        assertValid(new Box(10, 4, 10).packInto(Collections.nCopies(4, new Box(2, 5, 5))).orElseThrow());
+    }
+
+    @Test
+    void testExtremePointPacking() {
+        List<Box> items = List.of(
+            new Box(3, 1, 1), new Box(1, 1, 1), new Box(1, 1, 1), new Box(1, 1, 1),
+            new Box(1, 1, 1), new Box(1, 1, 1), new Box(1, 1, 3), new Box(1, 1, 1),
+            new Box(1, 2, 1), new Box(1, 1, 2), new Box(2, 1, 1), new Box(1, 3, 1),
+            new Box(1, 2, 1), new Box(1, 2, 1)
+        );
+
+        assertValid(new Box(3, 3, 3).packInto(items).orElseThrow());
+    }
+
+    @Test
+    void testSolverPacking() {
+        var query = pastTheHeuristic(1);
+
+        assertValid(query.container().packInto(query.items()).orElseThrow());
+    }
+
+    @Test
+    void testScaledSolverPacking() {
+        var query = pastTheHeuristic(2);
+        var packing = query.container().packInto(query.items()).orElseThrow();
+
+        assertValid(packing);
+        assertEquals(8 * 80, volume(packing));
+    }
+
+    @Test
+    void testPortfolioPacking() {
+        var query = pastTheHeuristic(1);
+
+        assertValid(query.container().packInto(query.items(), FitOptions.defaults().withPortfolio(3)).orElseThrow());
+    }
+
+    @Test
+    void testNoFitHasNoPacking() {
+        List<Box> items = List.of(new Box(1, 1, 1), new Box(2, 2, 2), new Box(3, 3, 1), new Box(3, 1, 1));
+
+        assertTrue(new Box(3, 4, 2).packInto(items).isEmpty());
+    }
+
+    // Fills the container exactly, but not with any of the extreme point orders, and is too many items for the
+    // small search: left to the solver, shared by the solver tests
+    static FitQuery pastTheHeuristic(int scale) {
+        int[][] items = {
+            {2, 3, 1}, {1, 1, 2}, {1, 1, 1}, {3, 2, 2}, {3, 2, 1}, {2, 3, 2},
+            {1, 2, 2}, {3, 3, 2}, {1, 3, 2}, {2, 2, 1}, {3, 3, 1}
+        };
+
+        return new FitQuery(new Box(4 * scale, 5 * scale, 4 * scale), Arrays.stream(items)
+            .map(d -> new Box(d[0] * scale, d[1] * scale, d[2] * scale))
+            .toList());
+    }
+
+    private static long volume(Packing packing) {
+        long volume = 0;
+
+        for (int i = 0; i < packing.size(); i++) {
+            volume += (long) packing.width(i) * packing.height(i) * packing.length(i);
+        }
+
+        return volume;
+    }
+
+    // Every item inside the container and no two of them overlapping
+    static void assertValid(Packing packing) {
+        Box container = packing.container();
+
+        for (int i = 0; i < packing.size(); i++) {
+            assertTrue(packing.x(i) >= 0 && packing.x(i) + packing.width(i) <= container.width());
+            assertTrue(packing.y(i) >= 0 && packing.y(i) + packing.height(i) <= container.height());
+            assertTrue(packing.z(i) >= 0 && packing.z(i) + packing.length(i) <= container.length());
+
+            for (int j = i + 1; j < packing.size(); j++) {
+                boolean apart = packing.x(i) + packing.width(i) <= packing.x(j)
+                    || packing.x(j) + packing.width(j) <= packing.x(i)
+                    || packing.y(i) + packing.height(i) <= packing.y(j)
+                    || packing.y(j) + packing.height(j) <= packing.y(i)
+                    || packing.z(i) + packing.length(i) <= packing.z(j)
+                    || packing.z(j) + packing.length(j) <= packing.z(i);
+
+                assertTrue(apart, "Items " + i + " and " + j + " overlap in " + packing);
+            }
+        }
+    }
+}
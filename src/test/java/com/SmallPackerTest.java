@@ -0,0 +1,101 @@
+package com;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmallPackerTest {
+    private static final FitOptions OPTIONS = FitOptions.defaults().withTimeLimit(10_000);
+
+    @Test
+    void testNeedsRotation() {
+        assertPacks(new Box(6, 4, 4), List.of(new Box(4, 4, 3), new Box(4, 2, 4)));
+    }
+
+    @Test
+    void testIdenticalItemsFillTheContainer() {
+        assertPacks(new Box(9, 6, 3), Collections.nCopies(6, new Box(3, 3, 3)));
+    }
+
+    @Test
+    void testNoFit() {
+        var items = List.of(new Box(1, 1, 1), new Box(2, 2, 2), new Box(3, 3, 1), new Box(3, 1, 1));
+        var result = solve(new Box(3, 4, 2), items, null);
+
+        assertNotNull(result);
+        assertEquals(Box.Verdict.DOES_NOT_FIT, result.verdict());
+    }
+
+    @Test
+    void testAgreesWithTheModel() {
+        var random = new Random(21);
+        int decided = 0;
+
+        for (int instance = 0; instance < 300; instance++) {
+            var container = new Box(4 + random.nextInt(5), 4 + random.nextInt(5), 4 + random.nextInt(5));
+            List<Box> items = new ArrayList<>();
+            long volume = 0;
+
+            while (items.size() < SmallPacker.MAX_ITEMS) {
+                var item = new Box(1 + random.nextInt(4), 1 + random.nextInt(4), 1 + random.nextInt(4));
+
+                if (volume + item.volume() > container.volume()) {
+                    break;
+                }
+
+                items.add(item);
+                volume += item.volume();
+            }
+
+            var packing = new Packing(container, items);
+            var result = solve(container, items, packing);
+
+            if (result == null) {
+                continue;
+            }
+
+            decided++;
+            var model = new PackingModel(container, sorted(items), FitOptions.Formulation.PAIRWISE);
+            var expected = model.model.getSolver().solve() ? Box.Verdict.FITS : Box.Verdict.DOES_NOT_FIT;
+
+            assertEquals(expected, result.verdict(), () -> container + " " + items);
+
+            if (result.verdict() == Box.Verdict.FITS) {
+                PackingTest.assertValid(packing);
+            }
+        }
+
+        // Most of them, so that the comparison means something
+        assertTrue(decided > 200, "decided " + decided);
+    }
+
+    private static void assertPacks(Box container, List<Box> items) {
+        var packing = new Packing(container, items);
+        var result = solve(container, items, packing);
+
+        assertNotNull(result);
+        assertEquals(Box.Verdict.FITS, result.verdict());
+        PackingTest.assertValid(packing);
+    }
+
+    private static FitResult solve(Box container, List<Box> items, Packing packing) {
+        int[] order = Box.order(items, Box.BOX_COMPARATOR.reversed());
+        return new SmallPacker(container, sorted(items)).solve(OPTIONS, packing, order);
+    }
+
+    private static List<Box> sorted(List<Box> items) {
+        int[] order = Box.order(items, Box.BOX_COMPARATOR.reversed());
+        List<Box> sorted = new ArrayList<>(items.size());
+
+        for (int i : order) {
+            sorted.add(items.get(i));
+        }
+
+        return sorted;
+    }
+}